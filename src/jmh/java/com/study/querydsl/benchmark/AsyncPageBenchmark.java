@@ -0,0 +1,53 @@
+package com.study.querydsl.benchmark;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.repository.MemberRepositoryImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * searchPageComplex (content -> count 직렬) vs searchPageAsync (count 를 먼저 제출하고 content 와 동시에 실행)
+ * SampleTime 모드로 p99 를 비교한다. count cache 는 MemberDataState.countCacheSize (기본 0, 사용 안함) 로 조절
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class AsyncPageBenchmark {
+
+    private MemberRepositoryImpl memberRepositoryImpl;
+    private MemberSearchCondition condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberRepositoryImpl = data.getBean(MemberRepositoryImpl.class);
+        pageable = PageRequest.of(1, 20);
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepositoryImpl.searchPageComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageAsync() {
+        return memberRepositoryImpl.searchPageAsync(condition, pageable);
+    }
+}
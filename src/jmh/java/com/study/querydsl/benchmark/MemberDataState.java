@@ -0,0 +1,88 @@
+package com.study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.QuerydslApplication;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.MemberJpaRepository;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 벤치마크용 스프링 컨텍스트 + embedded H2 (in-memory)
+ * rows 개의 member 를 teamCount 개의 team 에 나눠서 저장한다.
+ */
+@State(Scope.Benchmark)
+public class MemberDataState {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"10"})
+    public int teamCount;
+
+    // 0 이면 count cache 를 사용하지 않는다. (매번 count 쿼리 실행)
+    @Param({"0"})
+    public int countCacheSize;
+
+    public ConfigurableApplicationContext context;
+    public EntityManager em;
+    public JPAQueryFactory queryFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+            .run("--spring.profiles.active=bench",
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--member.count-cache.max-size=" + countCacheSize,
+                "--member.search-index.enabled=true");
+
+        em = context.getBean(EntityManager.class);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        seed(context.getBean(TransactionTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(TransactionTemplate transactionTemplate) {
+        MemberJpaRepository memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        Long[] teamIds = new Long[teamCount];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < teamCount; i++) {
+                Team team = new Team("team" + i);
+                em.persist(team);
+                teamIds[i] = team.getId();
+            }
+        });
+
+        // 트랜잭션 밖에서 호출해서 saveAll 이 flushSize 건 마다 clear 하도록 한다. (team 의 members 에 member 가 쌓이지 않도록)
+        memberJpaRepository.saveAll(() -> IntStream.range(0, rows)
+            .mapToObj(i -> new Member("member" + i, i % 100, em.getReference(Team.class, teamIds[i % teamCount])))
+            .iterator());
+    }
+}
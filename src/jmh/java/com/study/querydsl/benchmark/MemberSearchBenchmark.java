@@ -0,0 +1,108 @@
+package com.study.querydsl.benchmark;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.repository.MemberJpaRepository;
+import com.study.querydsl.repository.MemberQueryRepository;
+import com.study.querydsl.repository.MemberRepositoryImpl;
+import com.study.querydsl.repository.MemberSearchIndex;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 검색 경로 비교
+ * - DB 검색: search (MemberQueryRepository, where 다중 파라미터) vs searchByBuilder (BooleanBuilder)
+ * - MemberRepositoryImpl: searchPageSimple (fetchResults) vs searchPageComplex (count 분리) vs searchPageSimple2 (applyPagination)
+ * - DB 대신 메모리 컬럼 인덱스에서 검색: searchWithIndex
+ *   (MemberDataState 는 member.search-index.enabled 이므로 MemberJpaRepository.search 도 인덱스를 사용한다)
+ * - 호출마다 Querydsl 식 생성, 직렬화 vs 조건 조합 별로 직렬화해 둔 JPQL (MemberSearchTemplates)
+ *   : search vs searchWithTemplate, searchPageComplex vs searchPageWithTemplate (gc 프로파일러로 호출 당 할당량도 비교)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchBenchmark {
+
+    @Param({"team", "age", "all"})
+    public String filter;
+
+    private MemberJpaRepository memberJpaRepository;
+    private MemberQueryRepository memberQueryRepository;
+    private MemberRepositoryImpl memberRepositoryImpl;
+    private MemberSearchIndex memberSearchIndex;
+    private MemberSearchCondition condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberJpaRepository = data.getBean(MemberJpaRepository.class);
+        memberQueryRepository = data.getBean(MemberQueryRepository.class);
+        memberRepositoryImpl = data.getBean(MemberRepositoryImpl.class);
+        memberSearchIndex = data.getBean(MemberSearchIndex.class);
+        memberSearchIndex.rebuild();
+        pageable = PageRequest.of(1, 20);
+
+        condition = new MemberSearchCondition();
+        if (!"age".equals(filter)) {
+            condition.setTeamName("team1");
+        }
+        if (!"team".equals(filter)) {
+            condition.setAgeGoe(20);
+            condition.setAgeLoe(40);
+        }
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberQueryRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchWithTemplate() {
+        return memberJpaRepository.searchWithTemplate(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchWithIndex() {
+        return memberSearchIndex.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepositoryImpl.searchPageSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepositoryImpl.searchPageComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageWithTemplate() {
+        return memberRepositoryImpl.searchPageWithTemplate(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple2() {
+        return memberRepositoryImpl.searchPageSimple2(condition, pageable);
+    }
+}
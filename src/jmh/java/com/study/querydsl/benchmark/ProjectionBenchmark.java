@@ -0,0 +1,114 @@
+package com.study.querydsl.benchmark;
+
+import static com.study.querydsl.entity.QMember.member;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.MemberDto;
+import com.study.querydsl.dto.QMemberDto;
+import com.study.querydsl.repository.ColumnFetches;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * QuerydslBasicTest 의 DTO 조회 방식 비교
+ * - Projections.bean (setter), Projections.fields (필드), Projections.constructor (생성자), @QueryProjection
+ * - id, (id, username) 조회: List&lt;Long&gt;, Tuple vs ColumnFetches (long[], Map)
+ * gc 프로파일러의 gc.alloc.rate.norm 으로 row 당 할당량을 비교한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+
+    private JPAQueryFactory queryFactory;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        queryFactory = data.queryFactory;
+        readOnlyTransaction = new TransactionTemplate(data.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<MemberDto> bean() {
+        return queryFactory
+            .select(Projections.bean(MemberDto.class,
+                member.username,
+                member.age))
+            .from(member)
+            .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> fields() {
+        return queryFactory
+            .select(Projections.fields(MemberDto.class,
+                member.username,
+                member.age))
+            .from(member)
+            .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor() {
+        return queryFactory
+            .select(Projections.constructor(MemberDto.class,
+                member.username,
+                member.age))
+            .from(member)
+            .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        return queryFactory
+            .select(new QMemberDto(member.username, member.age))
+            .from(member)
+            .fetch();
+    }
+
+    // ColumnFetches 는 cursor 를 사용하므로 트랜잭션 안에서 비교한다.
+    @Benchmark
+    public List<Long> idList() {
+        return readOnlyTransaction.execute(status -> queryFactory
+            .select(member.id)
+            .from(member)
+            .fetch());
+    }
+
+    @Benchmark
+    public long[] idLongs() {
+        return readOnlyTransaction.execute(status ->
+            ColumnFetches.fetchLongs(queryFactory.from(member), member.id));
+    }
+
+    @Benchmark
+    public List<Tuple> usernameTuple() {
+        return readOnlyTransaction.execute(status -> queryFactory
+            .select(member.id, member.username)
+            .from(member)
+            .fetch());
+    }
+
+    @Benchmark
+    public Map<Long, String> usernameMap() {
+        return readOnlyTransaction.execute(status ->
+            ColumnFetches.fetchMap(queryFactory.from(member), member.id, member.username));
+    }
+}
@@ -0,0 +1,10 @@
+package com.study.querydsl.config;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * ReadWriteRoutingDataSource 의 lookup key
+ */
+public enum DataSourceRole {
+    PRIMARY, REPLICA
+}
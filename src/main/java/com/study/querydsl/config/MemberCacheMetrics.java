@@ -0,0 +1,34 @@
+package com.study.querydsl.config;
+
+import com.study.querydsl.repository.MemberCountCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * searchPageComplex count 캐시 적중 (/actuator/metrics/member.count.cache.requests, member.count.cache.size)
+ */
+@Component
+public class MemberCacheMetrics implements MeterBinder {
+
+    private final MemberCountCache countCache;
+
+    public MemberCacheMetrics(MemberCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("member.count.cache.requests", countCache, MemberCountCache::getHitCount)
+            .tag("result", "hit")
+            .register(registry);
+        Gauge.builder("member.count.cache.requests", countCache, MemberCountCache::getMissCount)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("member.count.cache.size", countCache, MemberCountCache::size)
+            .register(registry);
+    }
+}
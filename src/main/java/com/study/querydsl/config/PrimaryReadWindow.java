@@ -0,0 +1,109 @@
+package com.study.querydsl.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member, team 쓰기가 커밋된 후 잠깐 동안 (windowMillis) 읽기 전용 트랜잭션도 primary 에서 읽게 한다.
+ * replica 는 허용 지연 (replica-check.max-lag-ms) 만큼 늦을 수 있다. 무효화하는 쪽에서 커밋 후 open() 을 호출하고,
+ * ReadWriteRoutingDataSource 는 현재 스레드에서 isOpen() 이면 replica 를 쓰지 않는다.
+ * 다른 요청의 일반 조회는 계속 replica 에서 읽는다. primary 로 가는 경우는 두 가지 뿐이다.
+ * - 쓴 쪽 (read-your-writes): 쓰기를 커밋한 웹 요청 (request attribute), 웹 요청 밖이면 그 스레드 (ThreadLocal)
+ *   에서 windowMillis 동안
+ * - 공유 캐시 다시 채우기 (refill): 마지막 쓰기 후 windowMillis 동안, refill(loader) 안의 조회
+ *   (MemberCountCache, MemberSearchMemo 의 공유 캐시) 늦은 replica 의 이전 값이 ttl 동안 다른 요청에 공유되지 않도록
+ * 커넥션은 트랜잭션의 첫 쿼리에서 고르므로, readOnly 트랜잭션이 이미 replica 커넥션을 잡은 후라면 끝날 때 까지 replica 를 사용한다.
+ * 그 이후의 replica 읽기는 복제 지연 만큼 늦을 수 있다. (lag-query 가 없으면 지연을 확인하지 않는다)
+ * replica 를 설정하지 않았으면 모든 읽기가 primary 이므로 영향이 없다.
+ */
+@Component
+public class PrimaryReadWindow {
+
+    private static final String REQUEST_ATTRIBUTE = PrimaryReadWindow.class.getName();
+
+    private final long windowNanos;
+    // 공유 캐시를 다시 채울 때 primary 에서 읽는 기한 (전역)
+    private final AtomicLong refillClosesAt = new AtomicLong(System.nanoTime());
+    // 웹 요청 밖에서 쓴 스레드의 기한
+    private final ThreadLocal<Long> threadClosesAt = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> refilling = new ThreadLocal<>();
+
+    public PrimaryReadWindow(
+        @Value("${member.datasource.read-your-writes-ms:${member.datasource.replica-check.max-lag-ms:1000}}")
+            long windowMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * 지금부터 windowMillis 동안 (이미 더 길게 열려 있으면 그대로)
+     * 현재 요청 (또는 스레드) 의 읽기와, 모든 스레드의 공유 캐시 refill 을 primary 로 보낸다.
+     */
+    public void open() {
+        long until = System.nanoTime() + windowNanos;
+        refillClosesAt.getAndUpdate(current -> until - current > 0 ? until : current);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, until, RequestAttributes.SCOPE_REQUEST);
+        } else {
+            threadClosesAt.set(until);
+        }
+    }
+
+    /**
+     * 현재 스레드의 조회를 primary 로 보내야 하면 true
+     */
+    public boolean isOpen() {
+        long now = System.nanoTime();
+        if (Boolean.TRUE.equals(refilling.get()) && refillClosesAt.get() - now > 0) {
+            return true;
+        }
+        Long sessionClosesAt = sessionClosesAt();
+        return sessionClosesAt != null && sessionClosesAt - now > 0;
+    }
+
+    /**
+     * 공유 캐시에 저장할 값을 조회한다. 마지막 쓰기 후 windowMillis 동안은 primary 에서 읽는다.
+     */
+    public <T> T refill(Supplier<T> loader) {
+        if (Boolean.TRUE.equals(refilling.get())) {
+            return loader.get();
+        }
+        refilling.set(Boolean.TRUE);
+        try {
+            return loader.get();
+        } finally {
+            refilling.remove();
+        }
+    }
+
+    private Long sessionClosesAt() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            return (Long) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        Long closesAt = threadClosesAt.get();
+        if (closesAt != null && closesAt - System.nanoTime() <= 0) {
+            threadClosesAt.remove();
+            return null;
+        }
+        return closesAt;
+    }
+
+    // 테스트용
+    void close() {
+        refillClosesAt.set(System.nanoTime());
+        threadClosesAt.remove();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
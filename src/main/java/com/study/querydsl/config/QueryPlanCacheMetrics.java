@@ -0,0 +1,50 @@
+package com.study.querydsl.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * hibernate query plan cache 적중률 (/actuator/metrics/hibernate.query.plan.cache.hit.ratio)
+ * hibernate.generate_statistics: true 일 때만 값이 쌓인다.
+ */
+@Component
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory emf) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics,
+            Statistics::getQueryPlanCacheHitCount)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics,
+            Statistics::getQueryPlanCacheMissCount)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("hibernate.query.plan.cache.hit.ratio", statistics, QueryPlanCacheMetrics::hitRatio)
+            .register(registry);
+    }
+
+    public double hitRatio() {
+        return hitRatio(statistics);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
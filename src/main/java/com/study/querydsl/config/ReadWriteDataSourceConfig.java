@@ -0,0 +1,65 @@
+package com.study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member.datasource.replica.jdbc-url 이 있으면 읽기 전용 트랜잭션을 replica 로 보낸다.
+ * - primary: spring.datasource.* (hikari 설정은 spring.datasource.hikari.*)
+ * - replica: member.datasource.replica.* (HikariDataSource 프로퍼티: jdbc-url, username, maximum-pool-size ...)
+ * - replica 확인: member.datasource.replica-check.* (ReplicaLagMonitor)
+ * - 쓰기 커밋 후 member.datasource.read-your-writes-ms (기본값 max-lag-ms) 동안은 쓴 요청의 읽기, 공유 캐시 refill 도 primary
+ *   (PrimaryReadWindow)
+ * - p6spy 는 가장 바깥 dataSource 에만 붙인다. (statement 중복 집계 방지)
+ *   -> decorator.datasource.exclude-beans: primaryDataSource, replicaDataSource, routingDataSource
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "member.datasource.replica", name = "jdbc-url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("member.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+        @Value("${member.datasource.replica-check.lag-query:}") String lagQuery,
+        @Value("${member.datasource.replica-check.max-lag-ms:1000}") long maxLagMillis,
+        @Value("${member.datasource.replica-check.interval-ms:1000}") long intervalMillis) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLagMillis, intervalMillis);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor,
+        PrimaryReadWindow primaryReadWindow) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor,
+            primaryReadWindow);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,48 @@
+package com.study.querydsl.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * @Transactional(readOnly = true) 안이면 replica, 그 외 (쓰기, 트랜잭션 밖) 는 primary
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 동기화되지 않으므로 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 쿼리 시점에 커넥션을 고르도록 한다. (ReadWriteDataSourceConfig)
+ * 다음 경우에는 readOnly 라도 primary
+ * - replica 가 허용 지연보다 늦거나 확인에 실패한 경우 (ReplicaLagMonitor)
+ * - member, team 쓰기를 커밋한 요청 (스레드) 의 직후 읽기, 쓰기 직후 공유 캐시를 다시 채우는 조회 (PrimaryReadWindow)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final PrimaryReadWindow primaryReadWindow;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+        PrimaryReadWindow primaryReadWindow) {
+        this.lagMonitor = lagMonitor;
+        this.primaryReadWindow = primaryReadWindow;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primary);
+        targets.put(DataSourceRole.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRole();
+    }
+
+    public DataSourceRole currentRole() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isAvailable()
+            && !primaryReadWindow.isOpen()) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,88 @@
+package com.study.querydsl.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.StringUtils;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * replica 를 읽기에 사용해도 되는지 주기적으로 확인한다.
+ * - lagQuery 가 있으면 첫 컬럼을 복제 지연 (ms) 으로 보고 maxLagMillis 를 넘으면 사용하지 않는다.
+ *   ex) MySQL: select timestampdiff(microsecond, max(ts), now(6)) / 1000 from heartbeat
+ * - lagQuery 가 없으면 연결만 확인한다.
+ * - 확인에 실패하면 (연결 불가, 쿼리 오류) 사용하지 않는다. -> 읽기도 primary 로
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean available;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long checkIntervalMillis) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public synchronized void check() {
+        boolean wasAvailable = available;
+        try (Connection connection = replica.getConnection();
+            Statement statement = connection.createStatement()) {
+            lagMillis = StringUtils.hasText(lagQuery) ? queryLag(statement) : 0;
+            available = lagMillis <= maxLagMillis;
+        } catch (SQLException e) {
+            lagMillis = -1;
+            available = false;
+            if (wasAvailable) {
+                log.warn("replica check failed, reads go to primary", e);
+            }
+            return;
+        }
+
+        if (wasAvailable != available) {
+            log.warn("replica {} (lag {} ms, max {} ms)", available ? "available" : "lagging, reads go to primary",
+                lagMillis, maxLagMillis);
+        }
+    }
+
+    private long queryLag(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("lag query returned no row: " + lagQuery);
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.querydsl.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import com.study.querydsl.monitoring.StatementCounter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 검색 count 쿼리를 병렬로 실행하는 스레드 풀
+ * - 스레드마다 커넥션을 하나씩 사용하므로 pool-size 는 커넥션 풀 크기보다 작게 잡는다.
+ * - 큐가 가득 차면 호출한 스레드에서 실행한다. (직렬 실행으로 돌아감)
+ * - 작업의 쿼리에는 timeoutMillis 를 query timeout 으로 걸고, 결과도 그 만큼만 기다린다.
+ *   (Future.cancel 로는 실행 중인 JDBC statement 가 멈추지 않으므로 DB 쪽 timeout 으로 스레드를 돌려받는다)
+ * - 작업에서 실행한 SQL 은 제출한 스레드의 StatementCounter 에 더한다. (요청 당 SQL 개수, repository.statements)
+ * - Executor 빈으로 등록하면 spring boot 기본 applicationTaskExecutor 가 등록되지 않으므로 감싸서 사용한다.
+ *   (JDK 21 이상이면 delegate 를 virtual thread executor 로 바꿀 수 있다.)
+ */
+@Component
+public class SearchExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+    private final int timeoutMillis;
+
+    public SearchExecutor(@Value("${member.search-executor.pool-size:4}") int poolSize,
+        @Value("${member.search-executor.queue-capacity:100}") int queueCapacity,
+        @Value("${member.search-executor.timeout-millis:3000}") int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        delegate.setCorePoolSize(poolSize);
+        delegate.setMaxPoolSize(poolSize);
+        delegate.setQueueCapacity(queueCapacity);
+        delegate.setThreadNamePrefix("member-search-");
+        delegate.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        delegate.setTaskDecorator(StatementCounter::propagate);
+        delegate.initialize();
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return delegate.submit(task);
+    }
+
+    /**
+     * javax.persistence.query.timeout 힌트 값 (hibernate 는 초 단위로 반올림)
+     */
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public void destroy() {
+        delegate.shutdown();
+    }
+}
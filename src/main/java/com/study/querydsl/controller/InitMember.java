@@ -2,13 +2,16 @@ package com.study.querydsl.controller;
 
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.MemberJpaRepository;
+import java.util.stream.IntStream;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Created by hyeonahlee on 2020-12-04.
@@ -27,21 +30,34 @@ public class InitMember {
     }
 
     @Component
+    @RequiredArgsConstructor
     static class InitMemberService {
         @PersistenceContext
         private EntityManager em;
 
-        @Transactional
+        private final MemberJpaRepository memberJpaRepository;
+        private final TransactionTemplate transactionTemplate;
+
+        @Value("${member.init.size:100}")
+        private int size;
+
+        /**
+         * team 은 트랜잭션 안에서 저장하고, member 는 트랜잭션 밖에서 saveAll 로 저장한다.
+         * saveAll 이 트랜잭션을 시작하므로 flushSize 건 마다 영속성 컨텍스트를 clear 해서
+         * team 과 team 의 members 에 저장한 member 가 계속 쌓이지 않는다.
+         */
         public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for (int i = 0; i < 100; i++) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member" + i, i, selectedTeam));
-            }
+            Long[] teamIds = transactionTemplate.execute(status -> {
+                Team teamA = new Team("teamA");
+                Team teamB = new Team("teamB");
+                em.persist(teamA);
+                em.persist(teamB);
+                return new Long[]{teamA.getId(), teamB.getId()};
+            });
+
+            memberJpaRepository.saveAll(() -> IntStream.range(0, size)
+                .mapToObj(i -> new Member("member" + i, i, em.getReference(Team.class, teamIds[i % 2])))
+                .iterator());
         }
     }
 }
@@ -1,15 +1,34 @@
 package com.study.querydsl.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.study.querydsl.dto.CursorSlice;
 import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSliceSort;
 import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.repository.InvalidCursorException;
+import com.study.querydsl.repository.MemberCursor;
 import com.study.querydsl.repository.MemberJpaRepository;
 import com.study.querydsl.repository.MemberRepository;
+import com.study.querydsl.repository.MemberRepositoryCustom;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Created by hyeonahlee on 2020-12-04.
@@ -20,19 +39,78 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.search(condition);
     }
 
+    /**
+     * 결과를 메모리에 모으지 않고 한 줄에 하나씩 (NDJSON) 바로 내려준다.
+     * StreamingResponseBody 는 별도 스레드에서 실행되므로 그 안에서 트랜잭션을 연다.
+     */
+    @GetMapping(value = "/v1/members/stream", produces = "application/x-ndjson")
+    public StreamingResponseBody searchMemberV1Stream(MemberSearchCondition condition) {
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition)) {
+                writeNdjson(stream.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<MemberTeamDto> rows, OutputStream out) throws IOException {
+        SequenceWriter writer = objectMapper.writer()
+            .withRootValueSeparator("\n")
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writeValues(out);
+
+        while (rows.hasNext()) {
+            writer.write(rows.next());
+        }
+        writer.close();
+    }
+
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageSimple(condition, pageable);
     }
 
+    /**
+     * estimateCount=true 이면 count 쿼리 대신 통계로 전체 개수를 추정한다. (응답의 exact 로 구분)
+     */
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+        @RequestParam(defaultValue = "false") boolean estimateCount) {
+        if (estimateCount) {
+            return memberRepository.searchPageEstimated(condition, pageable);
+        }
         return memberRepository.searchPageComplex(condition, pageable);
     }
+
+    /**
+     * size 는 1 ~ 100, 범위를 벗어나거나 cursor 를 해석할 수 없으면 (InvalidCursorException) 400
+     * 그 밖의 예외는 서버 오류로 그대로 둔다.
+     */
+    @GetMapping("/v4/members")
+    public CursorSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "ID") MemberSliceSort sort,
+        @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MemberRepositoryCustom.MAX_SLICE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "size must be between 1 and " + MemberRepositoryCustom.MAX_SLICE_SIZE);
+        }
+        MemberCursor after;
+        try {
+            after = MemberCursor.decode(cursor, sort);
+        } catch (InvalidCursorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return memberRepository.searchSlice(condition, sort, after, size);
+    }
 }
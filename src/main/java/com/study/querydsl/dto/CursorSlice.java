@@ -0,0 +1,24 @@
+package com.study.querydsl.dto;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * offset 대신 cursor 로 다음 페이지를 조회하는 결과.
+ * nextCursor 는 클라이언트가 해석하지 않고 그대로 다시 넘겨주는 토큰이다.
+ */
+@Getter
+public class CursorSlice<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorSlice(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
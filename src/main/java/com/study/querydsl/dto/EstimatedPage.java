@@ -0,0 +1,25 @@
+package com.study.querydsl.dto;
+
+import java.util.List;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 전체 개수가 추정값일 수 있는 페이지
+ * exact 가 false 이면 totalElements, totalPages 는 통계로 추정한 값이다. (ex. "약 1.2M 건")
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private final boolean exact;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long total, boolean exact) {
+        super(content, pageable, total);
+        this.exact = exact;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
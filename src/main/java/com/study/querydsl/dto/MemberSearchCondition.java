@@ -9,6 +9,9 @@ import lombok.Data;
 public class MemberSearchCondition {
 
     private String username;
+    private UsernameMatch usernameMatch = UsernameMatch.EXACT;
+    // username 부분 문자열 (대소문자 무시)
+    private String containsText;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
@@ -0,0 +1,68 @@
+package com.study.querydsl.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 정규화된 MemberSearchCondition, 캐시 키로 사용하는 불변 객체
+ * - 문자열은 앞뒤 공백을 제거하고, 빈 문자열은 null 로 바꾼다.
+ * - username 이 없으면 usernameMatch 는 의미가 없으므로 EXACT 로 고정한다.
+ * MemberSearchCondition 은 요청 파라미터 바인딩 (@ModelAttribute) 용으로 그대로 두고, 같은 검색인지 비교할 때 이 키를 쓴다.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class MemberSearchKey {
+
+    private final String username;
+    private final UsernameMatch usernameMatch;
+    private final String containsText;
+    private final String teamName;
+    private final Integer ageGoe;
+    private final Integer ageLoe;
+
+    private MemberSearchKey(String username, UsernameMatch usernameMatch, String containsText, String teamName,
+        Integer ageGoe, Integer ageLoe) {
+        this.username = username;
+        this.usernameMatch = username == null || usernameMatch == null ? UsernameMatch.EXACT : usernameMatch;
+        this.containsText = containsText;
+        this.teamName = teamName;
+        this.ageGoe = ageGoe;
+        this.ageLoe = ageLoe;
+    }
+
+    public static MemberSearchKey of(MemberSearchCondition condition) {
+        return new MemberSearchKey(
+            trimToNull(condition.getUsername()),
+            condition.getUsernameMatch(),
+            trimToNull(condition.getContainsText()),
+            trimToNull(condition.getTeamName()),
+            condition.getAgeGoe(),
+            condition.getAgeLoe());
+    }
+
+    /**
+     * 같은 값을 가진 새 검색 조건 (조회 쿼리에 넘길 때 사용)
+     */
+    public MemberSearchCondition toCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setUsernameMatch(usernameMatch);
+        condition.setContainsText(containsText);
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,13 @@
+package com.study.querydsl.dto;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * keyset(seek) 페이징의 정렬 키
+ * - ID: (member_id)
+ * - AGE: (age, member_id) 복합 키
+ */
+public enum MemberSliceSort {
+    ID,
+    AGE
+}
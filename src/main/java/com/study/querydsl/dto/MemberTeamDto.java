@@ -23,4 +23,11 @@ public class MemberTeamDto {
         this.teamId = teamId;
         this.teamName = teamName;
     }
+
+    /**
+     * 같은 값을 가진 새 객체 (여러 호출자가 공유하는 결과를 넘겨줄 때 사용)
+     */
+    public MemberTeamDto copy() {
+        return new MemberTeamDto(id, username, age, teamId, teamName);
+    }
 }
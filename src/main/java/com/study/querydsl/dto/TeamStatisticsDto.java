@@ -0,0 +1,33 @@
+package com.study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ */
+@Data
+public class TeamStatisticsDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;
+    private Integer maxAge;
+
+    @QueryProjection
+    public TeamStatisticsDto(Long teamId, String teamName, long memberCount, long ageSum, Integer minAge,
+        Integer maxAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public double getAgeAvg() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.study.querydsl.dto;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * MemberSearchCondition.username 비교 방식
+ * - EXACT: username = ? (idx_member_username)
+ * - PREFIX: username 이 ? 로 시작 (idx_member_username 범위 검색)
+ * - IGNORE_CASE: 대소문자 무시 일치, 소문자로 저장해 둔 username_lower = ? (idx_member_username_lower)
+ */
+public enum UsernameMatch {
+    EXACT,
+    PREFIX,
+    IGNORE_CASE
+}
@@ -4,9 +4,15 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 
 import lombok.*;
 
@@ -14,19 +20,41 @@ import lombok.*;
  * Created by hyeonahlee on 2020-11-22.
  */
 @Entity
+@NamedEntityGraph(name = Member.WITH_TEAM, attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = {
+    // MemberSearchCondition 의 조건 별 인덱스 (MemberSearchPlanTest)
+    @Index(name = "idx_member_username", columnList = "username"),
+    @Index(name = "idx_member_username_lower", columnList = "username_lower"),
+    // team 조건 + 나이 범위, username 까지 포함해서 MemberTeamDto 조회는 테이블을 읽지 않는다. (covering index)
+    @Index(name = "idx_member_team_age", columnList = "team_id, age, username"),
+    @Index(name = "idx_member_age", columnList = "age")
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
+    public static final String WITH_TEAM = "Member.withTeam";
+
+    // pooled optimizer: 시퀀스 한번 호출로 id 100개를 미리 할당 (insert 마다 시퀀스 조회 X)
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
 
     private String username;
 
+    // 대소문자 무시 검색용 (UsernameMatch.IGNORE_CASE, containsText)
+    // lower(username) = ? 는 인덱스를 사용할 수 없으므로 DB 가 계산해서 저장하는 컬럼 (generated column) 에 인덱스를 건다.
+    // 엔티티 저장, JPQL 벌크 update 등 어떤 방법으로 username 을 바꿔도 DB 의 lower() 로 같이 바뀐다.
+    // 읽기 전용, 엔티티의 값은 조회할 때만 채워진다. (persist, 변경 후에는 다시 조회하기 전까지 이전 값)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "username_lower", insertable = false, updatable = false,
+        columnDefinition = "varchar(255) generated always as (lower(username))")
+    private String usernameLower;
+
     private int age;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -3,6 +3,9 @@ package com.study.querydsl.entity;
 import javax.persistence.*;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,20 +14,31 @@ import java.util.List;
  * Created by hyeonahlee on 2020-11-22.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
+@BatchSize(size = Team.BATCH_SIZE)  // member.team 프록시를 초기화할 때 함께 초기화할 team 수
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
 
+    // hibernate.default_batch_fetch_size 대신 사용 (team 은 수가 적으므로 한번에 더 많이)
+    public static final int BATCH_SIZE = 500;
+    // 한 team 의 members 가 많으므로 in 절 하나에 묶는 team 수는 작게
+    public static final int MEMBERS_BATCH_SIZE = 50;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 100)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
     @OneToMany(mappedBy = "team")
+    @BatchSize(size = Team.MEMBERS_BATCH_SIZE)  // members 컬렉션을 초기화할 때 함께 초기화할 team 수
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
@@ -0,0 +1,43 @@
+package com.study.querydsl.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 팀 별 회원 나이 집계 (count, sum, min, max)
+ * member 를 매번 group by 하지 않도록 member 변경 시 증분으로 갱신한다. (TeamStatisticsEventListener)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStatistics {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    // 회원이 없으면 null
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    public TeamStatistics(Long teamId, long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+}
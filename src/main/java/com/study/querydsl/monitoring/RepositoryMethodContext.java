@@ -0,0 +1,36 @@
+package com.study.querydsl.monitoring;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 현재 스레드에서 실행 중인 repository 메서드 (ex. MemberJpaRepository.search)
+ * SQL 로그에 어느 메서드가 실행한 쿼리인지 남기기 위해 사용한다.
+ */
+public final class RepositoryMethodContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 이전 값, 호출이 끝나면 restore 로 되돌린다. (중첩 호출)
+     */
+    static String enter(String method) {
+        String previous = CURRENT.get();
+        CURRENT.set(method);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.study.querydsl.monitoring;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.study.querydsl.dto.CursorSlice;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.UsernameMatch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 회원 조회 repository 메서드 별 지표 (/actuator/metrics/repository.*)
+ * - repository.invocations: 실행 시간 (histogram bucket 만 내보내고 백분위는 모니터링 쪽에서 집계한다)
+ * - repository.rows: 반환한 row 수 (List, Page, Slice, CursorSlice, Optional)
+ * - repository.statements: 실행된 SQL 개수
+ * 태그 condition 은 검색 조건을 몇 가지로만 나눈 값이다. (meter 수가 조건 조합 수 만큼 늘어나지 않도록)
+ * - text: 부분 문자열 (containsText) 또는 prefix, 대소문자 무시 username 검색
+ * - username: username 일치 검색
+ * - team: team 이름 검색 (나이 조건 포함)
+ * - age: 나이 조건만
+ * - none: 조건 없음, n/a: 검색 조건이 없는 메서드
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.study.querydsl.repository.MemberJpaRepository.*(..))"
+        + " || execution(public * com.study.querydsl.repository.MemberRepositoryImpl.*(..))"
+        + " || execution(public * com.study.querydsl.repository.MemberQueryRepository.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Tags tags = Tags.of(
+            "class", className,
+            "method", methodName,
+            "condition", conditionTag(joinPoint.getArgs()));
+
+        String previousMethod = RepositoryMethodContext.enter(className + "." + methodName);
+        long statementStart = StatementCounter.current();
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(tags, result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            RepositoryMethodContext.restore(previousMethod);
+
+            Timer.builder("repository.invocations")
+                .tags(tags)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            DistributionSummary.builder("repository.statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(StatementCounter.since(statementStart));
+        }
+    }
+
+    private void recordRows(Tags tags, Object result) {
+        long rows;
+        if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            rows = ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof CursorSlice) {
+            rows = ((CursorSlice<?>) result).getContent().size();
+        } else if (result instanceof Optional) {
+            rows = ((Optional<?>) result).isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder("repository.rows")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(rows);
+    }
+
+    static String conditionTag(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition) {
+                return conditionTag((MemberSearchCondition) arg);
+            }
+        }
+        return "n/a";
+    }
+
+    // 가장 비용이 큰 조건 기준
+    private static String conditionTag(MemberSearchCondition condition) {
+        boolean username = hasText(condition.getUsername());
+        UsernameMatch match = condition.getUsernameMatch();
+        if (hasText(condition.getContainsText()) || username && match != null && match != UsernameMatch.EXACT) {
+            return "text";
+        }
+        if (username) {
+            return "username";
+        }
+        if (hasText(condition.getTeamName())) {
+            return "team";
+        }
+        if (condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+            return "age";
+        }
+        return "none";
+    }
+}
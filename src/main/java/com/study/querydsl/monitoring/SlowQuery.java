@@ -0,0 +1,27 @@
+package com.study.querydsl.monitoring;
+
+import java.time.Instant;
+import lombok.Getter;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ */
+@Getter
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final long elapsedMillis;
+    private final String repositoryMethod;
+    // hibernate.use_sql_comments 가 켜져 있으면 SQL 앞에 붙는 JPQL (Querydsl 이 만든 쿼리)
+    private final String jpql;
+    // 바인딩 파라미터가 채워진 SQL
+    private final String sql;
+
+    public SlowQuery(Instant executedAt, long elapsedMillis, String repositoryMethod, String jpql, String sql) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.repositoryMethod = repositoryMethod;
+        this.jpql = jpql;
+        this.sql = sql;
+    }
+}
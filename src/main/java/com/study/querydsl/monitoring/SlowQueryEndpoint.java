@@ -0,0 +1,34 @@
+package com.study.querydsl.monitoring;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * GET /actuator/slowqueries: 최근 slow query 목록
+ * DELETE /actuator/slowqueries: 비우기
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return slowQueryLog.recent();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package com.study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 실행 시간이 임계값 (member.slow-query.threshold-ms) 을 넘은 SQL 만 로그로 남기고,
+ * 최근 bufferSize 건은 ring buffer 에 보관한다. (/actuator/slowqueries)
+ */
+@Slf4j
+@Component
+public class SlowQueryLog extends JdbcEventListener {
+
+    private static final String COMMENT_START = "/*";
+    private static final String COMMENT_END = "*/";
+
+    private final long thresholdNanos;
+    private final SlowQuery[] buffer;
+    private long written;
+
+    public SlowQueryLog(@Value("${member.slow-query.threshold-ms:200}") long thresholdMillis,
+        @Value("${member.slow-query.buffer-size:100}") int bufferSize) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.buffer = new SlowQuery[bufferSize];
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+        if (timeElapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        String sql = statementInformation.getSqlWithValues().trim();
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos),
+            RepositoryMethodContext.current(), jpql(sql), sql);
+
+        log.warn("slow query {}ms [{}] {}", slowQuery.getElapsedMillis(), slowQuery.getRepositoryMethod(), sql);
+        add(slowQuery);
+    }
+
+    /**
+     * @return 오래된 것부터 최근 것 순서
+     */
+    public synchronized List<SlowQuery> recent() {
+        int size = (int) Math.min(written, buffer.length);
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (long i = written - size; i < written; i++) {
+            result.add(buffer[(int) (i % buffer.length)]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        written = 0;
+    }
+
+    private synchronized void add(SlowQuery slowQuery) {
+        if (buffer.length == 0) {
+            return;
+        }
+        buffer[(int) (written++ % buffer.length)] = slowQuery;
+    }
+
+    private static String jpql(String sql) {
+        if (!sql.startsWith(COMMENT_START)) {
+            return null;
+        }
+        int end = sql.indexOf(COMMENT_END);
+        return end < 0 ? null : sql.substring(COMMENT_START.length(), end).trim();
+    }
+}
@@ -0,0 +1,65 @@
+package com.study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 요청 당 실행된 SQL 개수를 endpoint 별로 기록한다. (/actuator/metrics/http.server.requests.statements)
+ * 예산 (member.statement-budget.per-request) 을 넘으면 N+1 의심 경고를 남긴다.
+ * 요청 스레드 (와 SearchExecutor 작업) 의 SQL 만 센다. 비동기 요청 (StreamingResponseBody) 은
+ * async dispatch 에서 다시 세기 시작하므로 스트리밍 중 실행된 SQL 은 포함되지 않는다. (StatementCounter)
+ */
+@Slf4j
+@Component
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private static final String START = StatementCountInterceptor.class.getName() + ".START";
+
+    private final MeterRegistry meterRegistry;
+    private final long budget;
+
+    public StatementCountInterceptor(MeterRegistry meterRegistry,
+        @Value("${member.statement-budget.per-request:20}") long budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, StatementCounter.current());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+        Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start == null) {
+            return;
+        }
+
+        long executed = StatementCounter.since((Long) start);
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+
+        DistributionSummary.builder("http.server.requests.statements")
+            .description("SQL statements executed per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(executed);
+
+        if (executed > budget) {
+            log.warn("statement budget exceeded (possible N+1): {} {} executed {} statements (budget {})",
+                request.getMethod(), uri, executed, budget);
+        }
+    }
+}
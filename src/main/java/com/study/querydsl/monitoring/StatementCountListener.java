@@ -0,0 +1,22 @@
+package com.study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import java.sql.SQLException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * p6spy 가 감싼 DataSource 에서 statement 가 실행될 때마다 카운트 (batch 는 한 번으로 센다)
+ * p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동으로 등록한다.
+ */
+@Component
+public class StatementCountListener extends JdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+        StatementCounter.increment();
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.querydsl.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 현재 스레드에서 실행된 SQL 문 개수 (단조 증가)
+ * 구간의 실행 개수는 시작 시점 값과의 차이로 구한다.
+ *
+ * <pre>
+ * long start = StatementCounter.current();
+ * ...
+ * long executed = StatementCounter.since(start);
+ * </pre>
+ *
+ * 다른 스레드에서 실행된 SQL 은 기본적으로 포함되지 않는다.
+ * - SearchExecutor 작업은 propagate 로 제출한 스레드의 개수에 더한다. (TaskDecorator)
+ * - StreamingResponseBody, @Async 등 다른 executor 에서 실행되는 SQL 은 포함되지 않는다.
+ *   (/v1/members/stream 의 요청 당 개수 (StatementCountInterceptor) 에는 스트리밍 중 실행된 SQL 이 빠진다)
+ */
+public final class StatementCounter {
+
+    // propagate 하면 여러 스레드가 같은 개수를 증가시키므로 AtomicLong
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+
+    private StatementCounter() {
+    }
+
+    static void increment() {
+        COUNT.get().incrementAndGet();
+    }
+
+    public static long current() {
+        return COUNT.get().get();
+    }
+
+    public static long since(long start) {
+        return current() - start;
+    }
+
+    /**
+     * task 를 실행하는 동안 그 스레드의 SQL 을 호출한 스레드의 개수에 더한다.
+     * 호출한 스레드에서 감싸야 한다. (ThreadPoolTaskExecutor.setTaskDecorator(StatementCounter::propagate))
+     */
+    public static Runnable propagate(Runnable task) {
+        AtomicLong count = COUNT.get();
+        return () -> {
+            AtomicLong previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
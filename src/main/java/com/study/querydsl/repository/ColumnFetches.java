@@ -0,0 +1,78 @@
+package com.study.querydsl.repository;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.hibernate.jpa.QueryHints;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 한 컬럼 (long id) 또는 두 컬럼 (key, value) 만 조회할 때 Tuple, List&lt;Long&gt; 없이 결과를 만든다.
+ * - select(a, b).fetch() 는 row 마다 hibernate 의 row 배열에 더해 Tuple (+ 배열 복사) 을 만들고,
+ *   select(id).fetch() 는 전체 결과를 List&lt;Long&gt; 로 들고 있다가 다시 변환해야 한다.
+ * - 여기서는 JDBC cursor 로 한 row 씩 읽어서 (iterate) 바로 long[] 또는 Map 에 넣는다.
+ *   hibernate 가 만드는 Long, row 배열은 바로 버려지므로 큰 id 목록도 결과 크기 만큼만 메모리를 쓴다.
+ * 트랜잭션 안에서 사용한다. (cursor 를 읽는 동안 커넥션 유지)
+ * cursor 는 FETCH_SIZE row 씩 가져온다. (드라이버 기본값이 전체 결과를 한 번에 버퍼링하는 경우 대비, searchStream 과 같은 방식)
+ *
+ * <pre>
+ * long[] ids = ColumnFetches.fetchLongs(queryFactory.from(member).where(...), member.id);
+ * Map&lt;Long, String&gt; usernames = ColumnFetches.fetchMap(queryFactory.from(member), member.id, member.username);
+ * </pre>
+ */
+public final class ColumnFetches {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int FETCH_SIZE = 500;
+
+    private ColumnFetches() {
+    }
+
+    /**
+     * column 값을 조회 순서대로 long[] 로 (null 이면 NullPointerException, not null 컬럼에만 사용)
+     */
+    public static long[] fetchLongs(JPAQuery<?> query, Expression<? extends Number> column) {
+        long[] values = new long[INITIAL_CAPACITY];
+        int size = 0;
+        try (CloseableIterator<? extends Number> rows = query.select(column)
+            .setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .iterate()) {
+            while (rows.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = rows.next().longValue();
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * key -> value, 조회 순서 유지 (key 가 중복되면 IllegalStateException)
+     */
+    public static <K, V> Map<K, V> fetchMap(JPAQuery<?> query, Expression<K> key, Expression<V> value) {
+        Map<K, V> result = new LinkedHashMap<>();
+        // Tuple 대신 row 배열로 받는다.
+        try (CloseableIterator<Object[]> rows = query.select(Projections.array(Object[].class, key, value))
+            .setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .iterate()) {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                @SuppressWarnings("unchecked")
+                K k = (K) row[0];
+                @SuppressWarnings("unchecked")
+                V v = (V) row[1];
+                if (result.containsKey(k)) {
+                    throw new IllegalStateException("duplicate key: " + k);
+                }
+                result.put(k, v);
+            }
+        }
+        return result;
+    }
+}
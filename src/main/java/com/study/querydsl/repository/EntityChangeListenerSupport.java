@@ -0,0 +1,60 @@
+package com.study.querydsl.repository;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 엔티티 insert, update, delete 이벤트 (POST_*) 를 받는 리스너의 공통 부분
+ * - 빈 생성 후 hibernate 에 리스너로 등록한다. (isListening() 이 false 면 등록하지 않는다)
+ * - 이벤트는 트랜잭션 안에서 바로 처리하므로 커밋 후 처리 (post commit) 는 필요 없다.
+ */
+abstract class EntityChangeListenerSupport implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+
+    protected EntityChangeListenerSupport(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * false 면 리스너로 등록하지 않는다. (기능이 꺼져 있을 때)
+     */
+    protected boolean isListening() {
+        return true;
+    }
+
+    @PostConstruct
+    void register() {
+        if (!isListening()) {
+            return;
+        }
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 이전 이름 (오타), deprecated 지만 hibernate 5.4 의 인터페이스에 남아 있으므로 같이 구현한다.
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
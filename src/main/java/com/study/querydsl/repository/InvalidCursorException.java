@@ -0,0 +1,18 @@
+package com.study.querydsl.repository;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * keyset 페이징의 cursor 토큰을 해석할 수 없거나 정렬과 맞지 않는 경우 (MemberCursor.decode)
+ * 클라이언트가 보낸 값의 오류이므로 controller 에서 400 으로 바꾼다.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
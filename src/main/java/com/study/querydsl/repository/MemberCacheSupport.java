@@ -0,0 +1,211 @@
+package com.study.querydsl.repository;
+
+import com.study.querydsl.config.PrimaryReadWindow;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member 검색 결과 캐시 (MemberCountCache, MemberSearchMemo) 의 공통 부분
+ * - 공유 캐시: 최대 sharedMaxSize 개 (LRU), ttl 이 지나면 버린다.
+ * - member, team 의 insert, update, delete 이벤트나 벌크 연산 (MembersBulkChangedEvent) 이 있으면
+ *   세대 (generation) 를 올리고 공유 캐시를 비운다. 그 트랜잭션이 끝난 후에도 한번 더 비운다.
+ *   커밋 전에 다른 스레드가 이전 값을 다시 조회해서 저장할 수 있기 때문이다.
+ * - 조회 전의 세대를 sharedPut 에 넘기므로, 조회하는 동안 무효화 되었으면 저장하지 않는다.
+ * - 쓰기가 발생한 트랜잭션에는 그 트랜잭션 전용 저장소 (writeTransactionValues) 를 둔다. (커밋 전 값을 공유하지 않도록)
+ * - 커밋 후 잠깐 동안은 공유 캐시에 저장할 값을 primary 에서 조회한다. (refill, PrimaryReadWindow)
+ *
+ * @param <K> 캐시 키
+ * @param <V> 캐시 값
+ */
+abstract class MemberCacheSupport<K, V> extends EntityChangeListenerSupport {
+
+    private final PrimaryReadWindow primaryReadWindow;
+    private final int sharedMaxSize;
+    private final long sharedTtlNanos;
+
+    // access order LinkedHashMap 은 get 도 순서를 바꾸므로 항상 synchronized (shared) 안에서 접근한다.
+    private final Map<K, SharedEntry<V>> shared;
+    private final AtomicLong generation = new AtomicLong();
+
+    // 트랜잭션 리소스 키, 쓰기가 발생한 트랜잭션의 값 (완료 후 무효화를 등록했는지 표시도 겸한다)
+    private final Object writeTransactionKey = new Object();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    protected MemberCacheSupport(EntityManagerFactory emf, PrimaryReadWindow primaryReadWindow, int sharedMaxSize,
+        long sharedTtlNanos) {
+        super(emf);
+        this.primaryReadWindow = primaryReadWindow;
+        this.sharedMaxSize = sharedMaxSize;
+        this.sharedTtlNanos = sharedTtlNanos;
+        this.shared = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, SharedEntry<V>> eldest) {
+                return size() > MemberCacheSupport.this.sharedMaxSize;
+            }
+        };
+    }
+
+    protected boolean isSharedEnabled() {
+        return sharedMaxSize > 0 && sharedTtlNanos > 0;
+    }
+
+    protected final long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 공유 캐시의 값, 없거나 ttl 이 지났거나 이전 세대의 값이면 null
+     */
+    protected final V sharedGet(K key) {
+        if (!isSharedEnabled()) {
+            return null;
+        }
+        synchronized (shared) {
+            SharedEntry<V> entry = shared.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.generation != generation.get() || entry.expiresAt - System.nanoTime() <= 0) {
+                shared.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * loadedGeneration: 값을 조회하기 전의 generation()
+     */
+    protected final void sharedPut(K key, V value, long loadedGeneration) {
+        if (!isSharedEnabled()) {
+            return;
+        }
+        synchronized (shared) {
+            if (loadedGeneration == generation.get()) {
+                shared.put(key, new SharedEntry<>(value, loadedGeneration, System.nanoTime() + sharedTtlNanos));
+            }
+        }
+    }
+
+    /**
+     * 공유 캐시에 저장할 값을 조회한다. 커밋 후 잠깐 동안은 primary 에서 읽는다.
+     */
+    protected final <T> T refill(Supplier<T> loader) {
+        return primaryReadWindow.refill(loader);
+    }
+
+    /**
+     * 현재 트랜잭션에 쓰기가 발생했으면 그 트랜잭션 전용 저장소, 아니면 null
+     */
+    @SuppressWarnings("unchecked")
+    protected final Map<K, V> writeTransactionValues() {
+        return (Map<K, V>) TransactionSynchronizationManager.getResource(writeTransactionKey);
+    }
+
+    protected final void hit() {
+        hitCount.incrementAndGet();
+    }
+
+    protected final void miss() {
+        missCount.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        clearShared();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            primaryReadWindow.open();
+            return;
+        }
+        Map<K, V> transactionValues = writeTransactionValues();
+        if (transactionValues != null) {
+            transactionValues.clear();
+            return;
+        }
+        // 트랜잭션 당 한번만 등록
+        TransactionSynchronizationManager.bindResource(writeTransactionKey, new HashMap<K, V>());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTransactionKey);
+                primaryReadWindow.open();
+                clearShared();
+            }
+        });
+    }
+
+    @EventListener
+    public void onMembersBulkChanged(MembersBulkChangedEvent event) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidateIfMember(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidateIfMember(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidateIfMember(event.getEntity());
+    }
+
+    public int size() {
+        synchronized (shared) {
+            return shared.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private void invalidateIfMember(Object entity) {
+        if (entity instanceof Member || entity instanceof Team) {
+            invalidateAll();
+        }
+    }
+
+    private void clearShared() {
+        synchronized (shared) {
+            generation.incrementAndGet();
+            shared.clear();
+        }
+    }
+
+    private static final class SharedEntry<V> {
+
+        private final V value;
+        private final long generation;
+        private final long expiresAt;
+
+        private SharedEntry(V value, long generation, long expiresAt) {
+            this.value = value;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.study.querydsl.repository;
+
+import com.study.querydsl.config.PrimaryReadWindow;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSearchKey;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * searchPageComplex 의 count 쿼리 결과 캐시
+ * - 정규화된 검색 조건 (MemberSearchKey) 별로 count 를 저장한다.
+ * - 최대 maxSize 개 (LRU), ttl 이 지나면 다시 count 쿼리를 실행한다.
+ * - member, team 의 insert, update, delete 이벤트 (save, dirty checking, remove, 팀 이름 변경 모두 포함) 와
+ *   벌크 연산 (MembersBulkChangedEvent) 이 있으면 전체를 비운다. (MemberCacheSupport)
+ * - 쓰기가 발생한 트랜잭션에서 조회한 count 는 커밋 전 값이므로 공유하지 않고 그 트랜잭션 안에서만 기억한다.
+ */
+@Component
+public class MemberCountCache extends MemberCacheSupport<MemberSearchKey, Long> {
+
+    public MemberCountCache(EntityManagerFactory emf, PrimaryReadWindow primaryReadWindow,
+        @Value("${member.count-cache.max-size:1000}") int maxSize,
+        @Value("${member.count-cache.ttl-seconds:30}") long ttlSeconds) {
+        super(emf, primaryReadWindow, maxSize, TimeUnit.SECONDS.toNanos(ttlSeconds));
+    }
+
+    @Override
+    protected boolean isListening() {
+        return isSharedEnabled();
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier countQuery) {
+        if (!isSharedEnabled()) {
+            miss();
+            return countQuery.getAsLong();
+        }
+
+        MemberSearchKey key = MemberSearchKey.of(condition);
+        Map<MemberSearchKey, Long> transactionCounts = writeTransactionValues();
+        if (transactionCounts != null) {
+            Long cached = transactionCounts.get(key);
+            if (cached != null) {
+                hit();
+                return cached;
+            }
+            miss();
+            long count = countQuery.getAsLong();
+            transactionCounts.put(key, count);
+            return count;
+        }
+
+        long loadedGeneration = generation();
+        Long cached = sharedGet(key);
+        if (cached != null) {
+            hit();
+            return cached;
+        }
+
+        // count 쿼리는 lock 밖에서 실행한다.
+        // 실행 중 flush 되어 이 트랜잭션에 쓰기가 발생했으면 세대가 바뀌어 있으므로 저장되지 않는다.
+        miss();
+        long count = refill(countQuery::getAsLong);
+        sharedPut(key, count, loadedGeneration);
+        return count;
+    }
+}
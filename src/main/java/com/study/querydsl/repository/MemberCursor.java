@@ -0,0 +1,66 @@
+package com.study.querydsl.repository;
+
+import com.study.querydsl.dto.MemberSliceSort;
+import com.study.querydsl.dto.MemberTeamDto;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Getter;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * keyset 페이징의 마지막 위치 (sort key, member_id)
+ * 토큰은 "정렬:age:member_id" 를 base64url 로 인코딩한 값이다.
+ * 요청의 토큰은 controller 에서 decode 해서 (잘못된 토큰은 InvalidCursorException) repository 에 넘긴다.
+ */
+@Getter
+public final class MemberCursor {
+
+    private static final String DELIMITER = ":";
+
+    private final MemberSliceSort sort;
+    private final Integer age;
+    private final Long memberId;
+
+    private MemberCursor(MemberSliceSort sort, Integer age, Long memberId) {
+        this.sort = sort;
+        this.age = age;
+        this.memberId = memberId;
+    }
+
+    static MemberCursor of(MemberSliceSort sort, MemberTeamDto last) {
+        return new MemberCursor(sort, last.getAge(), last.getId());
+    }
+
+    /**
+     * @return 첫 페이지 (cursor 없음) 이면 null
+     * @throws InvalidCursorException 토큰을 해석할 수 없거나 sort 와 맞지 않는 경우
+     */
+    public static MemberCursor decode(String token, MemberSliceSort sort) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(DELIMITER);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("invalid cursor: " + token, e);
+        }
+
+        if (parts.length != 3 || !sort.name().equals(parts[0])) {
+            throw new InvalidCursorException("cursor does not match sort " + sort + ": " + token);
+        }
+
+        try {
+            return new MemberCursor(sort, Integer.valueOf(parts[1]), Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("invalid cursor: " + token, e);
+        }
+    }
+
+    String encode() {
+        String raw = sort.name() + DELIMITER + age + DELIMITER + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
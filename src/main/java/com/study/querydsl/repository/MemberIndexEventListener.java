@@ -0,0 +1,137 @@
+package com.study.querydsl.repository;
+
+import static com.study.querydsl.repository.MemberStates.age;
+import static com.study.querydsl.repository.MemberStates.teamId;
+import static com.study.querydsl.repository.MemberStates.username;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member, team 변경을 모아 두었다가 커밋된 후에 메모리 인덱스 (MemberSearchIndex, UsernameNgramIndex) 에 반영한다.
+ * (롤백되면 버린다)
+ * 트랜잭션 밖에서 발생한 변경은 순서를 보장할 수 없으므로 인덱스를 stale 로 표시한다.
+ */
+@Component
+public class MemberIndexEventListener extends EntityChangeListenerSupport {
+
+    private final MemberSearchIndex memberSearchIndex;
+    private final UsernameNgramIndex usernameNgramIndex;
+
+    public MemberIndexEventListener(EntityManagerFactory emf, MemberSearchIndex memberSearchIndex,
+        UsernameNgramIndex usernameNgramIndex) {
+        super(emf);
+        this.memberSearchIndex = memberSearchIndex;
+        this.usernameNgramIndex = usernameNgramIndex;
+    }
+
+    @Override
+    protected boolean isListening() {
+        return memberSearchIndex.isEnabled() || usernameNgramIndex.isEnabled();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        put(event.getEntity(), (Long) event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        put(event.getEntity(), (Long) event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        Long id = (Long) event.getId();
+        Changes changes = changes();
+        if (changes != null) {
+            changes.searchIndex(() -> memberSearchIndex.removeMember(id));
+            changes.ngramIndex(() -> usernameNgramIndex.remove(id));
+        }
+    }
+
+    private void put(Object entity, Long id, EntityPersister persister, Object[] state) {
+        if (entity instanceof Member) {
+            String username = username(persister, state);
+            int age = age(persister, state);
+            Long teamId = teamId(persister, state);
+            Changes changes = changes();
+            if (changes != null) {
+                changes.searchIndex(() -> memberSearchIndex.putMember(id, username, age, teamId));
+                changes.ngramIndex(() -> usernameNgramIndex.put(id, username));
+            }
+        } else if (entity instanceof Team) {
+            String name = ((Team) entity).getName();
+            Changes changes = changes();
+            if (changes != null) {
+                changes.searchIndex(() -> memberSearchIndex.putTeam(id, name));
+            }
+        }
+    }
+
+    /**
+     * 현재 트랜잭션의 변경 목록, 트랜잭션 동기화가 없으면 인덱스를 stale 로 표시하고 null
+     */
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            memberSearchIndex.markStale();
+            usernameNgramIndex.markStale();
+            return null;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private class Changes implements TransactionSynchronization {
+
+        private final List<Runnable> searchIndexChanges = new ArrayList<>();
+        private final List<Runnable> ngramIndexChanges = new ArrayList<>();
+
+        void searchIndex(Runnable change) {
+            if (memberSearchIndex.isEnabled()) {
+                searchIndexChanges.add(change);
+            }
+        }
+
+        void ngramIndex(Runnable change) {
+            if (usernameNgramIndex.isEnabled()) {
+                ngramIndexChanges.add(change);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!searchIndexChanges.isEmpty()) {
+                memberSearchIndex.apply(searchIndexChanges);
+            }
+            if (!ngramIndexChanges.isEmpty()) {
+                usernameNgramIndex.apply(ngramIndexChanges);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemberIndexEventListener.this);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.study.querydsl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member 메모리 인덱스 (MemberSearchIndex, UsernameNgramIndex) 의 공통 부분
+ * - 커밋된 변경만 트랜잭션 단위로 반영한다. (apply, MemberIndexEventListener)
+ * - 로딩 전이거나 이벤트 없이 바뀐 경우 (markStale, 벌크 연산의 MembersBulkChangedEvent) 에는 stale,
+ *   읽지 않고 백그라운드에서 다시 로딩한다.
+ * - 다시 로딩 (rebuild) 은 인덱스 마다 전용 스레드 하나에서 한다.
+ *   (테이블 전체를 읽는 작업이 검색 스레드 풀 (SearchExecutor) 을 차지하거나 요청 스레드에서 실행되지 않도록)
+ * - 읽는 동안 커밋된 변경은 기록해 두었다가 (changeLog) 읽은 결과에 커밋 순서대로 다시 반영한다.
+ *   (변경은 id 별 최종 값으로 덮어쓰므로 이미 읽은 결과에 포함된 변경을 다시 반영해도 결과가 같다)
+ *   읽는 동안 markStale() 이 호출되었으면 어떤 row 가 바뀌었는지 알 수 없으므로 버린다.
+ * 하위 클래스의 인덱스 자료구조는 lock 의 write lock 안에서만 바꾼다.
+ *
+ * @param <L> 한번에 읽어 온 인덱스 내용
+ */
+abstract class MemberIndexSupport<L> implements DisposableBean {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final boolean enabled;
+    private final TransactionTemplate loadTransaction;
+    private final ThreadPoolTaskExecutor rebuildExecutor = new ThreadPoolTaskExecutor();
+
+    // 이벤트 없는 변경 (markStale) 마다 증가, 다시 로딩하는 동안 증가했으면 로딩 결과를 버린다.
+    private final AtomicLong staleVersion = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean stale = true;
+    // 다시 로딩하는 동안 커밋된 변경 (트랜잭션 단위), write lock 안에서 접근
+    private List<List<Runnable>> changeLog;
+
+    protected MemberIndexSupport(PlatformTransactionManager transactionManager, String threadNamePrefix,
+        boolean enabled) {
+        this.enabled = enabled;
+        // 로딩 중에 커밋된 변경은 changeLog 로 보정하지만, replica 의 복제 지연은 보정할 수 없으므로 primary 에서 읽는다.
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        rebuildExecutor.setCorePoolSize(1);
+        rebuildExecutor.setMaxPoolSize(1);
+        rebuildExecutor.setThreadNamePrefix(threadNamePrefix);
+        rebuildExecutor.setDaemon(true);
+        rebuildExecutor.initialize();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * 이벤트 없이 member, team 이 바뀐 경우 호출한다. (벌크 연산)
+     * 트랜잭션 안이라면 커밋 후에도 한번 더 표시해서, 커밋 전에 다시 로딩된 인덱스를 사용하지 않도록 한다.
+     */
+    public void markStale() {
+        staleVersion.incrementAndGet();
+        stale = true;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    staleVersion.incrementAndGet();
+                    stale = true;
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onMembersBulkChanged(MembersBulkChangedEvent event) {
+        markStale();
+    }
+
+    /**
+     * 전체를 다시 읽는다. (load 는 트랜잭션 안에서, lock 밖에서 실행한다)
+     */
+    public synchronized void rebuild() {
+        long startVersion = staleVersion.get();
+        lock.writeLock().lock();
+        try {
+            changeLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        L loaded;
+        try {
+            loaded = loadTransaction.execute(status -> load());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changeLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<List<Runnable>> committed = changeLog;
+            changeLog = null;
+            if (staleVersion.get() != startVersion) {
+                return;
+            }
+            replace(loaded);
+            stale = false;
+            for (List<Runnable> changes : committed) {
+                if (!run(changes)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 인덱스 전체를 읽는다. 트랜잭션 안, lock 밖에서 호출된다.
+     */
+    protected abstract L load();
+
+    /**
+     * 읽어 온 내용으로 인덱스를 바꾼다. write lock 안에서 호출된다.
+     */
+    protected abstract void replace(L loaded);
+
+    /**
+     * 한 트랜잭션에서 커밋된 변경을 한번에 반영한다.
+     */
+    void apply(List<Runnable> changes) {
+        lock.writeLock().lock();
+        try {
+            if (changeLog != null) {
+                changeLog.add(changes);
+            }
+            if (!stale) {
+                run(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * read lock 안에서 read 를 실행한다.
+     * stale 이면 실행하지 않고 null 을 돌려주고 백그라운드에서 다시 로딩한다.
+     */
+    protected final <T> T readIfFresh(Supplier<T> read) {
+        lock.readLock().lock();
+        try {
+            if (!stale) {
+                return read.get();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        rebuildAsync();
+        return null;
+    }
+
+    /**
+     * write lock 안에서 호출한다. 반영할 수 없는 변경이 있으면 stale 로 표시하고 false
+     */
+    private boolean run(List<Runnable> changes) {
+        try {
+            for (Runnable change : changes) {
+                change.run();
+            }
+            return true;
+        } catch (IllegalStateException e) {
+            // 사전에 없는 team 을 참조하는 등 인덱스만으로 반영할 수 없는 변경
+            stale = true;
+            return false;
+        }
+    }
+
+    private void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdown();
+    }
+}
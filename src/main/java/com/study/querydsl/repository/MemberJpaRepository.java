@@ -1,8 +1,15 @@
 package com.study.querydsl.repository;
 
+import static com.study.querydsl.repository.MemberPredicates.ageGoe;
+import static com.study.querydsl.repository.MemberPredicates.joinTeamIfReferenced;
+import static com.study.querydsl.repository.MemberPredicates.teamNameEq;
+import static com.study.querydsl.repository.MemberPredicates.usernameContains;
+import static com.study.querydsl.repository.MemberPredicates.usernameMatches;
 import static org.springframework.util.StringUtils.hasText;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.study.querydsl.dto.MemberSearchCondition;
@@ -11,10 +18,26 @@ import com.study.querydsl.dto.QMemberTeamDto;
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.QMember;
 import com.study.querydsl.entity.QTeam;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.persistence.EntityManager;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 /**
  * Created by rainalee on 2020-12-03.
@@ -22,28 +45,174 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class MemberJpaRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TeamStatisticsRepository teamStatisticsRepository;
+    private final MemberSearchIndex memberSearchIndex;
+    private final MemberSearchMemo searchMemo;
+    private final MemberSearchTemplates searchTemplates;
+    private final int flushSize;
+    private final int inChunkSize;
 
-    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
+    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory, ApplicationEventPublisher eventPublisher,
+        TeamStatisticsRepository teamStatisticsRepository, MemberSearchIndex memberSearchIndex,
+        MemberSearchMemo searchMemo, MemberSearchTemplates searchTemplates,
+        @Value("${member.bulk.flush-size:1000}") int flushSize, @Value("${member.in-chunk-size:512}") int inChunkSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("member.bulk.flush-size must be greater than 0: " + flushSize);
+        }
+        if (inChunkSize < 1) {
+            throw new IllegalArgumentException("member.in-chunk-size must be greater than 0: " + inChunkSize);
+        }
         this.em = em;
         this.queryFactory = queryFactory;
+        this.eventPublisher = eventPublisher;
+        this.teamStatisticsRepository = teamStatisticsRepository;
+        this.memberSearchIndex = memberSearchIndex;
+        this.searchMemo = searchMemo;
+        this.searchTemplates = searchTemplates;
+        this.flushSize = flushSize;
+        this.inChunkSize = inChunkSize;
     }
 
     public void save(Member member) {
         em.persist(member);
     }
 
+    /**
+     * 대량 저장
+     * - flushSize 건 마다 flush (hibernate.jdbc.batch_size 단위로 묶어서 insert) 후 영속성 컨텍스트에서 내보내서
+     *   엔티티가 계속 쌓이지 않도록 한다. 저장 후의 member 들은 준영속 상태가 된다.
+     * - saveAll 이 트랜잭션을 시작한 경우: clear (영속성 컨텍스트에는 saveAll 이 만든 것만 있다)
+     * - 호출한 쪽 트랜잭션에 참여한 경우: 저장한 member 만 detach 한다. 호출한 쪽의 엔티티는 영속 상태로 남는다.
+     *   이때 양방향 연관관계 (ex. 영속 상태인 team 의 members) 에 추가된 member 는 그 컬렉션이 계속 참조한다.
+     *   많은 건수를 저장할 때는 트랜잭션 밖에서 호출하는 것이 좋다.
+     */
+    @Transactional
+    public long saveAll(Iterable<Member> members) {
+        boolean ownsTransaction = TransactionAspectSupport.currentTransactionStatus().isNewTransaction();
+        List<Member> batch = new ArrayList<>();
+        long count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            batch.add(member);
+            if (++count % flushSize == 0) {
+                flushAndDetach(batch, ownsTransaction);
+            }
+        }
+        flushAndDetach(batch, ownsTransaction);
+        return count;
+    }
+
+    private void flushAndDetach(List<Member> batch, boolean ownsTransaction) {
+        em.flush();
+        if (ownsTransaction) {
+            em.clear();
+        } else {
+            batch.forEach(em::detach);
+        }
+        batch.clear();
+    }
+
+    /**
+     * 벌크 연산은 영속성 컨텍스트를 무시하기 때문에 실행 후 flush, clear 해준다.
+     * 엔티티 이벤트도 발생하지 않으므로 실행 전에 바뀔 member 를 팀 별로 집계해서 팀 집계에 변경량으로 반영하고
+     * (커밋 직전에 바뀐 팀의 row 만 update), 캐시와 검색 인덱스는 MembersBulkChangedEvent 로 무효화 한다.
+     */
+    public long bulkAgePlus(int amount) {
+        teamStatisticsRepository.bulkAgesAdding(null, amount);
+        long count = queryFactory
+            .update(QMember.member)
+            .set(QMember.member.age, QMember.member.age.add(amount))
+            .execute();
+
+        em.flush();
+        em.clear();
+        eventPublisher.publishEvent(new MembersBulkChangedEvent(count));
+        return count;
+    }
+
+    public long bulkDeleteAgeGt(int age) {
+        teamStatisticsRepository.bulkRemoving(QMember.member.age.gt(age));
+        long count = queryFactory
+            .delete(QMember.member)
+            .where(QMember.member.age.gt(age))
+            .execute();
+
+        em.flush();
+        em.clear();
+        eventPublisher.publishEvent(new MembersBulkChangedEvent(count));
+        return count;
+    }
+
     public Optional<Member> findById(Long id) {
         Member findMember = em.find(Member.class, id);
         return Optional.ofNullable(findMember);
     }
 
+    /**
+     * in 절은 파라미터 개수마다 다른 쿼리가 되어 query plan cache 를 계속 차지한다.
+     * - hibernate.query.in_clause_parameter_padding 으로 파라미터 개수를 2의 거듭제곱으로 맞추고
+     * - inChunkSize 개씩 나눠서 조회해 in 절 크기의 종류를 제한한다.
+     */
+    public List<Member> findByIds(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Member> result = new ArrayList<>(distinctIds.size());
+
+        for (int from = 0; from < distinctIds.size(); from += inChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + inChunkSize, distinctIds.size()));
+            result.addAll(queryFactory
+                .selectFrom(QMember.member)
+                .where(QMember.member.id.in(chunk))
+                .fetch());
+        }
+        return result;
+    }
+
+    /**
+     * 검색 조건에 맞는 member id, id 순서 (Tuple, List&lt;Long&gt; 없이 long[] 로, ColumnFetches)
+     */
+    @Transactional(readOnly = true)
+    public long[] findIds(MemberSearchCondition condition) {
+        Predicate where = MemberPredicates.search(MemberPredicates.normalize(condition));
+        return ColumnFetches.fetchLongs(joinTeamIfReferenced(queryFactory.from(QMember.member), where)
+                .where(where)
+                .orderBy(QMember.member.id.asc()),
+            QMember.member.id);
+    }
+
+    /**
+     * 검색 조건에 맞는 member id -> username, id 순서 (Tuple 없이, ColumnFetches)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> findUsernamesById(MemberSearchCondition condition) {
+        Predicate where = MemberPredicates.search(MemberPredicates.normalize(condition));
+        return ColumnFetches.fetchMap(joinTeamIfReferenced(queryFactory.from(QMember.member), where)
+                .where(where)
+                .orderBy(QMember.member.id.asc()),
+            QMember.member.id, QMember.member.username);
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
             .getResultList();
     }
 
+    /**
+     * member 와 team 을 한번에 조회 (entity graph, fetch join 과 같은 SQL)
+     * 조회한 member 의 team 을 사용할 때 추가 쿼리가 나가지 않는다.
+     */
+    public List<Member> findAllWithTeams(MemberSearchCondition condition) {
+        Predicate where = MemberPredicates.search(MemberPredicates.normalize(condition));
+        return joinTeamIfReferenced(queryFactory.selectFrom(QMember.member), where)
+            .where(where)
+            .setHint(GraphSemantic.LOAD.getJpaHintName(), em.getEntityGraph(Member.WITH_TEAM))
+            .fetch();
+    }
+
     public List<Member> findAllWithQuerydsl() {
         return queryFactory
             .selectFrom(QMember.member)
@@ -65,10 +234,14 @@ public class MemberJpaRepository {
 
     // BooleanBuilder 활용
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
+        condition = MemberPredicates.normalize(condition);
 
         BooleanBuilder builder = new BooleanBuilder();
         if (hasText(condition.getUsername())) {
-            builder.and(QMember.member.username.eq(condition.getUsername()));
+            builder.and(usernameMatches(condition));
+        }
+        if (hasText(condition.getContainsText())) {
+            builder.and(usernameContains(condition));
         }
 
         if (hasText(condition.getTeamName())) {
@@ -96,8 +269,26 @@ public class MemberJpaRepository {
             .fetch();
     }
 
-    // where 활용, BooleanExpression 활용
+    /**
+     * 같은 요청 (또는 readOnly 트랜잭션) 안에서 같은 조건으로 다시 호출하면 DB 를 조회하지 않는다. (MemberSearchMemo)
+     * 기억해 둔 결과는 여러 호출자가 공유하므로 수정할 수 없는 List 로 저장하고, 호출자에게는 DTO 를 복사해서 돌려준다.
+     * (MemberTeamDto 는 setter 가 있어서 한 호출자의 수정이 다른 호출자에게 보이지 않도록)
+     * member.search-index.enabled 이면 메모리 인덱스로 검색한다. (MemberSearchIndex, 결과는 member id 순서)
+     */
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        List<MemberTeamDto> memo = searchMemo.get("search", condition, Pageable.unpaged(),
+            normalized -> Collections.unmodifiableList(memberSearchIndex.isEnabled()
+                ? memberSearchIndex.search(normalized)
+                : searchQuery(normalized)));
+        List<MemberTeamDto> result = new ArrayList<>(memo.size());
+        for (MemberTeamDto dto : memo) {
+            result.add(dto.copy());
+        }
+        return result;
+    }
+
+    // where 활용, BooleanExpression 활용
+    private List<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
         return queryFactory
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
@@ -107,40 +298,55 @@ public class MemberJpaRepository {
                 QTeam.team.name.as("teamName")))
             .from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
+            .where(MemberPredicates.search(condition))
             .fetch();
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? QMember.member.username.eq(username) : null;
+    /**
+     * search 와 같은 결과를 조건 조합 별로 직렬화해 둔 JPQL 로 조회한다. (MemberSearchTemplates)
+     * 호출마다 Querydsl 식을 만들고 직렬화하는 비용이 없다.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchWithTemplate(MemberSearchCondition condition) {
+        return searchTemplates.content(MemberPredicates.normalize(condition), Pageable.unpaged());
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? QTeam.team.name.eq(teamName) : null;
-    }
-
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? QMember.member.age.goe(ageGoe) : null;
-    }
+    /**
+     * 결과를 한번에 List 로 올리지 않고 JDBC cursor 로 한 row 씩 읽는다. (Querydsl iterate())
+     * - DTO 조회이므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+     * - 트랜잭션 안에서 사용하고, 다 읽은 후 반드시 close 해야 한다. (try-with-resources)
+     */
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition) {
+        condition = MemberPredicates.normalize(condition);
+        CloseableIterator<MemberTeamDto> iterator = queryFactory
+            .select(new QMemberTeamDto(
+                QMember.member.id.as("memberId"),
+                QMember.member.username,
+                QMember.member.age,
+                QTeam.team.id.as("teamId"),
+                QTeam.team.name.as("teamName")))
+            .from(QMember.member)
+            .leftJoin(QMember.member.team, QTeam.team)
+            .where(MemberPredicates.search(condition))
+            .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .iterate();
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? QMember.member.age.loe(ageLoe) : null;
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
     }
 
 
     // where 파라미터 활용, ageBetween 메서드로 조합 가능!
     public List<Member> searchMember(MemberSearchCondition condition) {
+        condition = MemberPredicates.normalize(condition);
         return queryFactory
             .selectFrom(QMember.member)
             .from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameMatches(condition),
+                usernameContains(condition),
                 teamNameEq(condition.getTeamName()),
                 ageBetween(condition.getAgeLoe(), condition.getAgeGoe())
             )
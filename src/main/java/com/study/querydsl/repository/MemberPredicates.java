@@ -0,0 +1,206 @@
+package com.study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSearchKey;
+import com.study.querydsl.dto.UsernameMatch;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.QTeam;
+import java.util.function.Function;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 여러 repository 가 같이 쓰는 member 검색 조건
+ */
+final class MemberPredicates {
+
+    static final char LIKE_ESCAPE = '!';
+
+    private MemberPredicates() {
+    }
+
+    /**
+     * 검색 메서드 입구에서 한번 호출한다. (앞뒤 공백 제거, 빈 문자열은 null, MemberSearchKey)
+     * 이후의 조건, 인덱스, 캐시는 모두 같은 값을 보게 된다.
+     */
+    static MemberSearchCondition normalize(MemberSearchCondition condition) {
+        return MemberSearchKey.of(condition).toCondition();
+    }
+
+    /**
+     * 검색 조건 전체 (username, containsText, teamName, ageGoe, ageLoe) 를 and 로 묶는다. 조건이 없으면 null
+     * teamName 조건은 QTeam.team 을 참조하므로 team 을 join 한 쿼리에서 사용한다.
+     */
+    static Predicate search(MemberSearchCondition condition) {
+        return search(condition, param -> Expressions.constant(param.value(condition)));
+    }
+
+    /**
+     * condition 에서 값이 있는 조건만 and 로 묶고, 비교할 값은 args 에서 가져온다.
+     * - Querydsl 쿼리: 값 그대로 상수 (search(condition))
+     * - MemberSearchTemplates: SearchParam 별 파라미터 (조건 조합 별로 JPQL 을 한번만 만들고 값은 바인딩)
+     * 두 경로가 같은 조건식을 쓰도록 조건은 여기에만 정의한다.
+     */
+    static Predicate search(MemberSearchCondition condition, Function<SearchParam, Expression<?>> args) {
+        return ExpressionUtils.allOf(
+            usernameMatches(condition, args),
+            usernameContains(condition, args),
+            hasText(condition.getTeamName()) ? QTeam.team.name.eq(string(args, SearchParam.TEAM_NAME)) : null,
+            condition.getAgeGoe() != null ? QMember.member.age.goe(integer(args, SearchParam.AGE_GOE)) : null,
+            condition.getAgeLoe() != null ? QMember.member.age.loe(integer(args, SearchParam.AGE_LOE)) : null);
+    }
+
+    /**
+     * team 컬럼을 조회하지 않는 쿼리는 where 조건이 team 을 참조할 때만 team 을 join 한다. (RootPathVisitor)
+     * member -> team 은 ManyToOne 이므로 left join 을 해도 row 수가 변하지 않는다.
+     * (team 조건이 있으면 team 없는 member 는 조건에서 빠지므로 DB 가 inner join 으로 바꿔서 실행할 수 있다)
+     */
+    static <T> JPAQuery<T> joinTeamIfReferenced(JPAQuery<T> query, Predicate where) {
+        if (RootPathVisitor.references(QTeam.team, where)) {
+            query.leftJoin(QMember.member.team, QTeam.team);
+        }
+        return query;
+    }
+
+    /**
+     * usernameMatch 에 따라 모두 인덱스를 탈 수 있는 형태로 만든다.
+     * - PREFIX: like 'x%' 는 파라미터일 때 인덱스 범위로 바뀌지 않는 DB (H2) 가 있으므로
+     *   [x, x + Character.MAX_VALUE) 범위 조건을 함께 건다. (정렬 순서가 다른 collation 을 위해 like 도 유지)
+     * - IGNORE_CASE: lower(username) 대신 DB 가 계산해 둔 username_lower 와 비교
+     *   (검색어도 DB 의 lower() 로 바꾼다. Java 의 toLowerCase 와 결과가 다른 문자가 있다)
+     */
+    static BooleanExpression usernameMatches(MemberSearchCondition condition) {
+        return usernameMatches(condition, param -> Expressions.constant(param.value(condition)));
+    }
+
+    /**
+     * username 에 containsText 가 포함 (대소문자 무시)
+     * like '%x%' 는 인덱스를 탈 수 없으므로 UsernameNgramIndex 를 사용할 수 없을 때만 쓴다.
+     */
+    static BooleanExpression usernameContains(MemberSearchCondition condition) {
+        return usernameContains(condition, param -> Expressions.constant(param.value(condition)));
+    }
+
+    private static BooleanExpression usernameMatches(MemberSearchCondition condition,
+        Function<SearchParam, Expression<?>> args) {
+        if (!hasText(condition.getUsername())) {
+            return null;
+        }
+        switch (usernameMatch(condition)) {
+            case PREFIX:
+                return QMember.member.username.goe(string(args, SearchParam.USERNAME))
+                    .and(QMember.member.username.lt(string(args, SearchParam.USERNAME_UPPER_BOUND)))
+                    .and(QMember.member.username.like(
+                        string(args, SearchParam.USERNAME_PREFIX_PATTERN), LIKE_ESCAPE));
+            case IGNORE_CASE:
+                return QMember.member.usernameLower.eq(lower(string(args, SearchParam.USERNAME)));
+            default:
+                return QMember.member.username.eq(string(args, SearchParam.USERNAME));
+        }
+    }
+
+    private static BooleanExpression usernameContains(MemberSearchCondition condition,
+        Function<SearchParam, Expression<?>> args) {
+        return hasText(condition.getContainsText())
+            ? QMember.member.usernameLower.like(lower(string(args, SearchParam.CONTAINS_PATTERN)), LIKE_ESCAPE)
+            : null;
+    }
+
+    private static Expression<String> lower(Expression<String> value) {
+        return Expressions.stringOperation(Ops.LOWER, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<String> string(Function<SearchParam, Expression<?>> args, SearchParam param) {
+        return (Expression<String>) args.apply(param);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Integer> integer(Function<SearchParam, Expression<?>> args, SearchParam param) {
+        return (Expression<Integer>) args.apply(param);
+    }
+
+    static BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? QTeam.team.name.eq(teamName) : null;
+    }
+
+    static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? QMember.member.age.goe(ageGoe) : null;
+    }
+
+    static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? QMember.member.age.loe(ageLoe) : null;
+    }
+
+    static UsernameMatch usernameMatch(MemberSearchCondition condition) {
+        return condition.getUsernameMatch() == null ? UsernameMatch.EXACT : condition.getUsernameMatch();
+    }
+
+    static String prefixUpperBound(String prefix) {
+        return prefix + Character.MAX_VALUE;
+    }
+
+    // like 패턴의 %, _ 와 escape 문자 자체를 escape (Querydsl 의 startsWith, contains 와 같은 규칙)
+    static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 4);
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == LIKE_ESCAPE || ch == '%' || ch == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(ch);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * 조건식에 넣는 값, 조건 종류마다 Java 에서 계산한다. (like 패턴, prefix 상한)
+     */
+    enum SearchParam {
+        USERNAME(String.class),
+        USERNAME_UPPER_BOUND(String.class),
+        USERNAME_PREFIX_PATTERN(String.class),
+        CONTAINS_PATTERN(String.class),
+        TEAM_NAME(String.class),
+        AGE_GOE(Integer.class),
+        AGE_LOE(Integer.class);
+
+        private final Class<?> type;
+
+        SearchParam(Class<?> type) {
+            this.type = type;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        Object value(MemberSearchCondition condition) {
+            switch (this) {
+                case USERNAME:
+                    return condition.getUsername();
+                case USERNAME_UPPER_BOUND:
+                    return prefixUpperBound(condition.getUsername());
+                case USERNAME_PREFIX_PATTERN:
+                    return escapeLike(condition.getUsername()) + "%";
+                case CONTAINS_PATTERN:
+                    return "%" + escapeLike(condition.getContainsText()) + "%";
+                case TEAM_NAME:
+                    return condition.getTeamName();
+                case AGE_GOE:
+                    return condition.getAgeGoe();
+                default:
+                    return condition.getAgeLoe();
+            }
+        }
+    }
+}
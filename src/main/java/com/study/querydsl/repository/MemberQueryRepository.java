@@ -2,15 +2,18 @@ package com.study.querydsl.repository;
 
 import static org.springframework.util.StringUtils.hasText;
 
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.study.querydsl.dto.MemberSearchCondition;
 import com.study.querydsl.dto.MemberTeamDto;
 import com.study.querydsl.dto.QMemberTeamDto;
 import com.study.querydsl.entity.QMember;
 import com.study.querydsl.entity.QTeam;
+import java.util.ArrayList;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Created by hyeonahlee on 2020-12-04.
@@ -19,18 +22,49 @@ import org.springframework.stereotype.Repository;
  * but, Custom에 의존해서 개발하는 것도 좋은 설계는 아니기에,
  * 쿼리가 복잡하거나 재 사용성이 적고, 특정 기능 혹은 화면에 에 특화된 기능이라면,
  * 별도의 조회용 repository로 분리해서 사용하는 것도 아키텍처 면에서 유연한 방법이다.
+ * 조회 전용이므로 readOnly 트랜잭션 (replica 가 설정되어 있으면 replica 에서 조회, ReadWriteDataSourceConfig)
  */
 @Repository
+@Transactional(readOnly = true)
 public class MemberQueryRepository {
 
     private final JPAQueryFactory queryFactory;
+    private final UsernameNgramIndex usernameNgramIndex;
+    private final int inChunkSize;
 
-    public MemberQueryRepository(JPAQueryFactory queryFactory) {
+    public MemberQueryRepository(JPAQueryFactory queryFactory, UsernameNgramIndex usernameNgramIndex,
+        @Value("${member.in-chunk-size:512}") int inChunkSize) {
+        if (inChunkSize < 1) {
+            throw new IllegalArgumentException("member.in-chunk-size must be greater than 0: " + inChunkSize);
+        }
         this.queryFactory = queryFactory;
+        this.usernameNgramIndex = usernameNgramIndex;
+        this.inChunkSize = inChunkSize;
     }
 
+    /**
+     * containsText 조건은 UsernameNgramIndex 에서 후보 id 를 찾고 id in 조회로 나머지 조건을 적용한다.
+     * (인덱스를 사용할 수 없거나 후보가 member.username-ngram.max-candidates 개를 넘으면 username_lower like '%x%')
+     */
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
+        condition = MemberPredicates.normalize(condition);
+        List<Long> ids = hasText(condition.getContainsText())
+            ? usernameNgramIndex.find(condition.getContainsText())
+            : null;
+        if (ids == null) {
+            return searchQuery(condition).fetch();
+        }
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += inChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + inChunkSize, ids.size()));
+            result.addAll(searchQuery(condition).where(QMember.member.id.in(chunk)).fetch());
+        }
+        return result;
+    }
+
+    private JPAQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
                 QMember.member.username,
@@ -38,30 +72,10 @@ public class MemberQueryRepository {
                 QTeam.team.id.as("teamId"),
                 QTeam.team.name.as("teamName")))
             .from(QMember.member)
-            .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
-    }
-
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? QMember.member.username.eq(username) : null;
-    }
-
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? QTeam.team.name.eq(teamName) : null;
-    }
-
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? QMember.member.age.goe(ageGoe) : null;
-    }
+            .leftJoin(QMember.member.team, QTeam.team);
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? QMember.member.age.loe(ageLoe) : null;
+        // containsText 는 id in 조회에서도 다시 확인한다. (후보가 이미 걸러져 있으므로 비용은 작다)
+        return query.where(MemberPredicates.search(condition));
     }
 
 }
@@ -1,6 +1,9 @@
 package com.study.querydsl.repository;
 
+import com.study.querydsl.dto.CursorSlice;
+import com.study.querydsl.dto.EstimatedPage;
 import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSliceSort;
 import com.study.querydsl.dto.MemberTeamDto;
 import java.util.List;
 import org.springframework.data.domain.Page;
@@ -11,9 +14,29 @@ import org.springframework.data.domain.Pageable;
  */
 public interface MemberRepositoryCustom {
 
+    /**
+     * searchSlice 의 최대 size
+     */
+    int MAX_SLICE_SIZE = 100;
+
     List<MemberTeamDto> search(MemberSearchCondition condition);
 
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
 
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+
+    Page<MemberTeamDto> searchPageWithTemplate(MemberSearchCondition condition, Pageable pageable);
+
+    Page<MemberTeamDto> searchPageAsync(MemberSearchCondition condition, Pageable pageable);
+
+    EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable);
+
+    /**
+     * cursor 는 이전 결과의 nextCursor 를 MemberCursor.decode 한 값, 첫 페이지는 null
+     * @throws IllegalArgumentException size 가 1 ~ MAX_SLICE_SIZE 가 아니거나 cursor 의 정렬이 sort 와 다른 경우
+     */
+    CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, MemberCursor cursor, int size);
+
+    CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, MemberSliceSort sort, MemberCursor cursor,
+        int size);
 }
@@ -1,32 +1,58 @@
 package com.study.querydsl.repository;
 
-import static org.springframework.util.StringUtils.hasText;
-
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.config.SearchExecutor;
+import com.study.querydsl.dto.CursorSlice;
+import com.study.querydsl.dto.EstimatedPage;
 import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSliceSort;
 import com.study.querydsl.dto.MemberTeamDto;
 import com.study.querydsl.dto.QMemberTeamDto;
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.QMember;
 import com.study.querydsl.entity.QTeam;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.persistence.EntityManager;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Created by hyeonahlee on 2020-12-04.
+ *
+ * 조회 전용이므로 readOnly 트랜잭션 (replica 가 설정되어 있으면 replica 에서 조회, ReadWriteDataSourceConfig)
  */
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl extends QuerydslRepositorySupport implements MemberRepositoryCustom {
 
+    private static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache countCache;
+    private final SearchExecutor searchExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MemberStatistics statistics;
+    private final MemberSearchMemo searchMemo;
+    private final MemberSearchTemplates searchTemplates;
 
 //    public MemberRepositoryImpl(JPAQueryFactory queryFactory) {
 //        this.queryFactory = queryFactory;
@@ -36,13 +62,23 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
      * Creates a new {@link QuerydslRepositorySupport} instance for the given domain type.
      *
      */
-    public MemberRepositoryImpl(EntityManager em) {
+    public MemberRepositoryImpl(EntityManager em, MemberCountCache countCache, SearchExecutor searchExecutor,
+        PlatformTransactionManager transactionManager, MemberStatistics statistics,
+        MemberSearchMemo searchMemo, MemberSearchTemplates searchTemplates) {
         super(Member.class);
         this.queryFactory = new JPAQueryFactory(em);
+        this.countCache = countCache;
+        this.searchExecutor = searchExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.statistics = statistics;
+        this.searchMemo = searchMemo;
+        this.searchTemplates = searchTemplates;
     }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        condition = MemberPredicates.normalize(condition);
 
         // QuerydslRepositorySupport 상속 후 )
         // entityManager를 가져와서 쓸 수 도 있다.
@@ -50,12 +86,7 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
 
         List<MemberTeamDto> result = from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
+            .where(MemberPredicates.search(condition))
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
                 QMember.member.username,
@@ -86,6 +117,7 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        condition = MemberPredicates.normalize(condition);
         QueryResults<MemberTeamDto> results = queryFactory
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
@@ -95,12 +127,7 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
                 QTeam.team.name.as("teamName")))
             .from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
+            .where(MemberPredicates.search(condition))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetchResults();
@@ -112,14 +139,10 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
     }
 
     public Page<MemberTeamDto> searchPageSimple2(MemberSearchCondition condition, Pageable pageable) {
+        condition = MemberPredicates.normalize(condition);
         JPQLQuery<MemberTeamDto> jpaQuery = from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
+            .where(MemberPredicates.search(condition))
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
                 QMember.member.username,
@@ -135,8 +158,18 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
         return new PageImpl<>(result);
     }
 
+    /**
+     * 같은 요청 (또는 readOnly 트랜잭션) 안에서 같은 조건, 같은 페이지로 다시 호출하면 DB 를 조회하지 않는다. (MemberSearchMemo)
+     * 기억해 둔 Page 는 여러 호출자가 공유하므로 content 의 DTO 를 복사해서 돌려준다.
+     */
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        Page<MemberTeamDto> memo = searchMemo.get("searchPageComplex", condition, pageable,
+            normalized -> searchPageComplexQuery(normalized, pageable));
+        return memo.map(MemberTeamDto::copy);
+    }
+
+    private Page<MemberTeamDto> searchPageComplexQuery(MemberSearchCondition condition, Pageable pageable) {
         List<MemberTeamDto> content = queryFactory
             .select(new QMemberTeamDto(
                 QMember.member.id.as("memberId"),
@@ -146,46 +179,194 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
                 QTeam.team.name.as("teamName")))
             .from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
+            .where(MemberPredicates.search(condition))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetch();
 
         // count query를 최적화 하고 싶다면 분리하라!
         // 또는 totalCount가 없다면 content 조회 안하도록 할 경우
-        JPAQuery<Member> countQuery = queryFactory
-            .select(QMember.member)
+        JPAQuery<Long> countQuery = countQuery(condition);
+
+        // content size가 전체보다 작을 경우 count 쿼리를 날릴 필요가 없음!!!
+        // 같은 조건의 count 는 캐시에서 가져온다. (쓰기 발생 시 무효화)
+        return PageableExecutionUtils.getPage(content, pageable,
+            () -> countCache.get(condition, countQuery::fetchCount));
+    }
+
+    /**
+     * searchPageComplex 와 같은 결과를 조건 조합 별로 직렬화해 둔 JPQL 로 조회한다. (MemberSearchTemplates)
+     * count 쿼리는 content 가 한 페이지를 채우지 못하면 실행하지 않는다.
+     */
+    @Override
+    public Page<MemberTeamDto> searchPageWithTemplate(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = MemberPredicates.normalize(condition);
+        List<MemberTeamDto> content = searchTemplates.content(normalized, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> searchTemplates.count(normalized));
+    }
+
+    /**
+     * searchPageComplex 와 같은 결과, count 쿼리를 searchExecutor 스레드에서 content 조회와 동시에 실행한다.
+     * - count 를 먼저 제출하고 content 를 조회한다. content 만으로 전체 개수를 알 수 있으면 count 를 취소한다.
+     *   (아직 시작하지 않았으면 실행하지 않는다. 실행 중인 statement 는 취소해도 멈추지 않으므로 query timeout 으로 끝난다)
+     * - count 에는 query timeout 힌트를 걸고 같은 시간 만큼만 기다린다. 넘으면 QueryTimeoutException
+     * - 호출한 스레드는 트랜잭션 없이 시작해서 content 만 짧은 readOnly 트랜잭션으로 조회한다.
+     *   count 를 기다리는 동안 커넥션을 잡고 있지 않으므로, 풀이 작아도 (CallerRunsPolicy 로 직접 실행해도)
+     *   한 요청이 커넥션을 두 개 동시에 기다리며 막히지 않는다.
+     * - count 는 별도 트랜잭션 (= 별도 EntityManager, 커넥션) 이므로
+     *   호출한 쪽 트랜잭션에서 아직 커밋하지 않은 변경은 보이지 않는다. (호출한 쪽 트랜잭션이 있으면 content 도 마찬가지)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<MemberTeamDto> searchPageAsync(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = MemberPredicates.normalize(condition);
+        Future<Long> total = searchExecutor.submit(() -> readOnlyTransaction.execute(status ->
+            countCache.get(normalized, () -> countQuery(normalized)
+                .setHint(QUERY_TIMEOUT_HINT, searchExecutor.getTimeoutMillis())
+                .fetchCount())));
+
+        try {
+            List<MemberTeamDto> content = readOnlyTransaction.execute(status -> pageContent(normalized, pageable));
+            return PageableExecutionUtils.getPage(content, pageable, () -> await(total));
+        } finally {
+            // 이미 끝났으면 아무 일도 없다.
+            total.cancel(false);
+        }
+    }
+
+    /**
+     * 전체 개수를 count 쿼리 대신 통계 (MemberStatistics) 로 추정한다.
+     * content 만으로 전체 개수를 알 수 있는 경우 (마지막 페이지) 와 추정할 수 없어서 count 쿼리를 실행한 경우에만 exact 이다.
+     */
+    @Override
+    public EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable) {
+        condition = MemberPredicates.normalize(condition);
+        List<MemberTeamDto> content = pageContent(condition, pageable);
+
+        boolean lastPage = content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty());
+        if (lastPage) {
+            return new EstimatedPage<>(content, pageable, pageable.getOffset() + content.size(), true);
+        }
+
+        OptionalLong estimate = statistics.estimateCount(condition);
+        if (estimate.isEmpty()) {
+            // 통계가 아직 없으면 정확한 count
+            return new EstimatedPage<>(content, pageable, countQuery(condition).fetchCount(), true);
+        }
+        // 적어도 현재 페이지 까지는 있다.
+        long estimated = Math.max(estimate.getAsLong(), pageable.getOffset() + content.size());
+        return new EstimatedPage<>(content, pageable, estimated, false);
+    }
+
+    private List<MemberTeamDto> pageContent(MemberSearchCondition condition, Pageable pageable) {
+        return queryFactory
+            .select(new QMemberTeamDto(
+                QMember.member.id.as("memberId"),
+                QMember.member.username,
+                QMember.member.age,
+                QTeam.team.id.as("teamId"),
+                QTeam.team.name.as("teamName")))
             .from(QMember.member)
             .leftJoin(QMember.member.team, QTeam.team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            );
+            .where(MemberPredicates.search(condition))
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+    }
 
-        // content size가 전체보다 작을 경우 count 쿼리를 날릴 필요가 없음!!!
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+    private long await(Future<Long> total) {
+        try {
+            return total.get(searchExecutor.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 실행 중인 statement 는 query timeout 으로 끝난다.
+            total.cancel(true);
+            throw new QueryTimeoutException("count query timed out", e);
+        } catch (InterruptedException e) {
+            total.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for count query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("count query failed", e.getCause());
+        }
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? QMember.member.username.eq(username) : null;
+    /**
+     * team 조건이 없으면 join 을 생략하고 id 만 count 한다. (MemberPredicates.joinTeamIfReferenced)
+     */
+    JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        Predicate where = MemberPredicates.search(condition);
+        return MemberPredicates.joinTeamIfReferenced(queryFactory
+            .select(QMember.member.id)
+            .from(QMember.member), where)
+            .where(where);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? QTeam.team.name.eq(teamName) : null;
+    @Override
+    public CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, MemberCursor cursor, int size) {
+        return searchSlice(condition, MemberSliceSort.ID, cursor, size);
+    }
+
+    /**
+     * offset 대신 마지막 위치 이후부터 조회 (keyset, seek 방식)
+     * offset 은 건너뛴 row 를 모두 읽고 버리지만, seek 은 인덱스에서 바로 시작 위치를 찾기 때문에
+     * 몇 번째 페이지든 비용이 같다.
+     * 다음 페이지 존재 여부는 size + 1 건을 조회해서 판단한다. (count 쿼리 없음)
+     */
+    @Override
+    public CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, MemberSliceSort sort,
+        MemberCursor cursor, int size) {
+        condition = MemberPredicates.normalize(condition);
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SLICE_SIZE + ": " + size);
+        }
+        if (cursor != null && cursor.getSort() != sort) {
+            throw new IllegalArgumentException("cursor does not match sort " + sort + ": " + cursor.getSort());
+        }
+
+        List<MemberTeamDto> content = queryFactory
+            .select(new QMemberTeamDto(
+                QMember.member.id.as("memberId"),
+                QMember.member.username,
+                QMember.member.age,
+                QTeam.team.id.as("teamId"),
+                QTeam.team.name.as("teamName")))
+            .from(QMember.member)
+            .leftJoin(QMember.member.team, QTeam.team)
+            .where(MemberPredicates.search(condition), after(sort, cursor))
+            .orderBy(sliceOrder(sort))
+            .limit(size + 1)
+            .fetch();
+
+        boolean hasNext = content.size() > size;
+        if (!hasNext) {
+            return new CursorSlice<>(content, null, false);
+        }
+
+        List<MemberTeamDto> page = new ArrayList<>(content.subList(0, size));
+        String nextCursor = MemberCursor.of(sort, page.get(size - 1)).encode();
+        return new CursorSlice<>(page, nextCursor, true);
     }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? QMember.member.age.goe(ageGoe) : null;
+    private BooleanExpression after(MemberSliceSort sort, MemberCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        if (sort == MemberSliceSort.AGE) {
+            return QMember.member.age.gt(cursor.getAge())
+                .or(QMember.member.age.eq(cursor.getAge()).and(QMember.member.id.gt(cursor.getMemberId())));
+        }
+        return QMember.member.id.gt(cursor.getMemberId());
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? QMember.member.age.loe(ageLoe) : null;
+    private OrderSpecifier<?>[] sliceOrder(MemberSliceSort sort) {
+        if (sort == MemberSliceSort.AGE) {
+            return new OrderSpecifier<?>[]{QMember.member.age.asc(), QMember.member.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{QMember.member.id.asc()};
     }
 
+
 }
@@ -0,0 +1,295 @@
+package com.study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.UsernameMatch;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.QTeam;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * MemberSearchCondition (username, teamName, ageGoe, ageLoe) 을 메모리에서 평가하는 읽기 전용 인덱스
+ * - 회원 한 명을 객체가 아닌 컬럼 배열의 한 행으로 저장한다. (ids, ages, teamCodes, usernameHashes)
+ * - team 은 사전(dictionary) 코드로 바꿔서 저장하고, 조건의 teamName 은 코드 별 boolean 표로 바꿔서 비교한다.
+ * - 네 조건을 분기 없이 한 번의 루프로 평가한다. (JIT 가 벡터화할 수 있는 형태)
+ * - 커밋된 변경만 반영한다. 아직 로딩되지 않았거나, 벌크 연산처럼 이벤트 없이 바뀐 경우 (stale) 에는
+ *   MemberQueryRepository.search 로 조회하고 백그라운드에서 다시 로딩한다. (MemberIndexSupport)
+ * - member.search-index.enabled 이면 MemberJpaRepository.search (/v1/members) 가 이 인덱스로 검색한다.
+ */
+@Component
+public class MemberSearchIndex extends MemberIndexSupport<MemberSearchIndex.LoadedMembers> {
+
+    private static final int NO_TEAM = -1;
+    private static final long NO_TEAM_ID = Long.MIN_VALUE;
+    private static final int LOAD_FETCH_SIZE = 1_000;
+
+    private final JPAQueryFactory queryFactory;
+    private final MemberQueryRepository memberQueryRepository;
+
+    // member 컬럼
+    private int size;
+    private long[] ids = new long[0];
+    private int[] ages = new int[0];
+    private int[] teamCodes = new int[0];
+    private int[] usernameHashes = new int[0];
+    private String[] usernames = new String[0];
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    // team 사전
+    private final Map<Long, Integer> codeByTeamId = new HashMap<>();
+    private final List<Long> teamIds = new ArrayList<>();
+    private final List<String> teamNames = new ArrayList<>();
+
+    public MemberSearchIndex(JPAQueryFactory queryFactory, MemberQueryRepository memberQueryRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${member.search-index.enabled:false}") boolean enabled) {
+        super(transactionManager, "member-search-index-", enabled);
+        this.queryFactory = queryFactory;
+        this.memberQueryRepository = memberQueryRepository;
+    }
+
+    /**
+     * 결과는 member id 순서
+     * 쓰기 트랜잭션 안에서는 아직 커밋하지 않은 자신의 변경이 보이도록 DB 에서 조회한다.
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        condition = MemberPredicates.normalize(condition);
+        if (!isEnabled() || !isExactUsername(condition) || hasText(condition.getContainsText())
+            || inWriteTransaction()) {
+            return memberQueryRepository.search(condition);
+        }
+        MemberSearchCondition normalized = condition;
+        List<MemberTeamDto> result = readIfFresh(() -> scan(normalized));
+        return result != null ? result : memberQueryRepository.search(condition);
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // username 은 hash 로만 비교하므로 prefix, 대소문자 무시 비교는 DB 에서 (인덱스 사용)
+    // 부분 문자열 (containsText) 은 MemberQueryRepository 에서 UsernameNgramIndex 로 찾는다.
+    private static boolean isExactUsername(MemberSearchCondition condition) {
+        return !hasText(condition.getUsername()) || MemberPredicates.usernameMatch(condition) == UsernameMatch.EXACT;
+    }
+
+    /**
+     * member 는 JDBC cursor 로 한 row 씩 읽어서 바로 컬럼 배열에 담는다. (Tuple 목록을 만들지 않는다)
+     * member 가 참조하는 team 이 team 목록에 모두 있도록 member 를 먼저 읽는다.
+     */
+    @Override
+    protected LoadedMembers load() {
+        LoadedMembers members = new LoadedMembers();
+        try (CloseableIterator<Tuple> rows = queryFactory
+            .select(QMember.member.id, QMember.member.username, QMember.member.age, QMember.member.team.id)
+            .from(QMember.member)
+            .setHint(QueryHints.HINT_FETCH_SIZE, LOAD_FETCH_SIZE)
+            .iterate()) {
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                Long teamId = row.get(QMember.member.team.id);
+                members.add(row.get(QMember.member.id), row.get(QMember.member.username),
+                    row.get(QMember.member.age), teamId == null ? NO_TEAM_ID : teamId);
+            }
+        }
+        members.teams = queryFactory
+            .select(QTeam.team.id, QTeam.team.name)
+            .from(QTeam.team)
+            .fetch();
+        return members;
+    }
+
+    /**
+     * 읽어 온 컬럼 배열을 그대로 인덱스의 컬럼으로 사용한다.
+     */
+    @Override
+    protected void replace(LoadedMembers members) {
+        clear(0);
+        for (Tuple team : members.teams) {
+            putTeam(team.get(QTeam.team.id), team.get(QTeam.team.name));
+        }
+        ids = members.ids;
+        ages = members.ages;
+        usernames = members.usernames;
+        teamCodes = new int[ids.length];
+        usernameHashes = new int[ids.length];
+        for (int row = 0; row < members.size; row++) {
+            long teamId = members.teamIds[row];
+            teamCodes[row] = teamId == NO_TEAM_ID ? NO_TEAM : teamCode(teamId);
+            usernameHashes[row] = Objects.hashCode(usernames[row]);
+            rowById.put(ids[row], row);
+        }
+        size = members.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void putTeam(Long teamId, String teamName) {
+        Integer code = codeByTeamId.get(teamId);
+        if (code == null) {
+            codeByTeamId.put(teamId, teamIds.size());
+            teamIds.add(teamId);
+            teamNames.add(teamName);
+        } else {
+            teamNames.set(code, teamName);
+        }
+    }
+
+    void putMember(Long id, String username, int age, Long teamId) {
+        int teamCode = teamId == null ? NO_TEAM : teamCode(teamId);
+
+        Integer row = rowById.get(id);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowById.put(id, row);
+        }
+        ids[row] = id;
+        ages[row] = age;
+        teamCodes[row] = teamCode;
+        usernameHashes[row] = Objects.hashCode(username);
+        usernames[row] = username;
+    }
+
+    private int teamCode(Long teamId) {
+        Integer code = codeByTeamId.get(teamId);
+        if (code == null) {
+            throw new IllegalStateException("unknown team: " + teamId);
+        }
+        return code;
+    }
+
+    void removeMember(Long id) {
+        Integer row = rowById.remove(id);
+        if (row == null) {
+            return;
+        }
+        // 마지막 행을 빈 자리로 옮긴다.
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            ages[row] = ages[last];
+            teamCodes[row] = teamCodes[last];
+            usernameHashes[row] = usernameHashes[last];
+            usernames[row] = usernames[last];
+            rowById.put(ids[row], row);
+        }
+        usernames[last] = null;
+    }
+
+    private List<MemberTeamDto> scan(MemberSearchCondition condition) {
+        int ageGoe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+        int ageLoe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+        boolean anyUsername = !hasText(condition.getUsername());
+        int usernameHash = anyUsername ? 0 : condition.getUsername().hashCode();
+
+        // teamCode + 1 위치에 조건 만족 여부 (0 은 team 없음)
+        boolean[] teamMatches = new boolean[teamNames.size() + 1];
+        if (hasText(condition.getTeamName())) {
+            for (int code = 0; code < teamNames.size(); code++) {
+                teamMatches[code + 1] = condition.getTeamName().equals(teamNames.get(code));
+            }
+        } else {
+            Arrays.fill(teamMatches, true);
+        }
+
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int age = ages[i];
+            boolean match = age >= ageGoe
+                & age <= ageLoe
+                & teamMatches[teamCodes[i] + 1]
+                & (anyUsername | usernameHashes[i] == usernameHash);
+            rows[count] = i;
+            count += match ? 1 : 0;
+        }
+
+        List<MemberTeamDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (!anyUsername && !condition.getUsername().equals(usernames[row])) {
+                continue;
+            }
+            int teamCode = teamCodes[row];
+            result.add(new MemberTeamDto(ids[row], usernames[row], ages[row],
+                teamCode == NO_TEAM ? null : teamIds.get(teamCode),
+                teamCode == NO_TEAM ? null : teamNames.get(teamCode)));
+        }
+        result.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return result;
+    }
+
+    private void clear(int capacity) {
+        size = 0;
+        ids = new long[capacity];
+        ages = new int[capacity];
+        teamCodes = new int[capacity];
+        usernameHashes = new int[capacity];
+        usernames = new String[capacity];
+        rowById.clear();
+        codeByTeamId.clear();
+        teamIds.clear();
+        teamNames.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        ages = Arrays.copyOf(ages, newCapacity);
+        teamCodes = Arrays.copyOf(teamCodes, newCapacity);
+        usernameHashes = Arrays.copyOf(usernameHashes, newCapacity);
+        usernames = Arrays.copyOf(usernames, newCapacity);
+    }
+
+    /**
+     * 다시 로딩할 때 읽은 member 컬럼 (team 은 사전 코드로 바꾸기 전의 id, 없으면 NO_TEAM_ID) 과 team 목록
+     */
+    static final class LoadedMembers {
+
+        private int size;
+        private long[] ids = new long[LOAD_FETCH_SIZE];
+        private int[] ages = new int[LOAD_FETCH_SIZE];
+        private long[] teamIds = new long[LOAD_FETCH_SIZE];
+        private String[] usernames = new String[LOAD_FETCH_SIZE];
+        private List<Tuple> teams;
+
+        private void add(long id, String username, int age, long teamId) {
+            if (size == ids.length) {
+                int newCapacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, newCapacity);
+                ages = Arrays.copyOf(ages, newCapacity);
+                teamIds = Arrays.copyOf(teamIds, newCapacity);
+                usernames = Arrays.copyOf(usernames, newCapacity);
+            }
+            ids[size] = id;
+            ages[size] = age;
+            teamIds[size] = teamId;
+            usernames[size] = username;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.study.querydsl.repository;
+
+import com.study.querydsl.config.PrimaryReadWindow;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSearchKey;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 같은 검색을 여러 번 호출할 때 DB 를 한 번만 조회하도록 결과를 기억해 둔다.
+ * 키는 (메서드, 정규화된 검색 조건 (MemberSearchKey), Pageable) 이다.
+ * - 웹 요청 안: 요청이 끝날 때 까지 (request attribute)
+ * - 웹 요청 밖의 readOnly 트랜잭션 안: 트랜잭션이 끝날 때 까지
+ * - 공유 캐시 (member.search-memo.shared.max-size > 0): 요청, 트랜잭션과 상관없이 ttl 동안, 최대 maxSize 개 (LRU)
+ * 요청 안에서는 여러 스레드가 같이 쓸 수 있으므로 ConcurrentHashMap 에 저장한다.
+ * 쓰기 트랜잭션 안에서는 아직 커밋하지 않은 변경이 결과에 보여야 하므로 사용하지 않는다.
+ * member, team 에 쓰기가 발생하면 세대 (generation) 를 올려서 이전에 기억한 결과를 모두 무효화한다.
+ * (벌크 연산은 MembersBulkChangedEvent, 공유 캐시와 무효화는 MemberCacheSupport)
+ */
+@Component
+public class MemberSearchMemo extends MemberCacheSupport<MemberSearchMemo.MemoKey, MemberSearchMemo.Memo> {
+
+    private static final String REQUEST_ATTRIBUTE = MemberSearchMemo.class.getName();
+
+    private final boolean enabled;
+
+    public MemberSearchMemo(EntityManagerFactory emf, PrimaryReadWindow primaryReadWindow,
+        @Value("${member.search-memo.enabled:true}") boolean enabled,
+        @Value("${member.search-memo.shared.max-size:0}") int sharedMaxSize,
+        @Value("${member.search-memo.shared.ttl-millis:1000}") long sharedTtlMillis) {
+        super(emf, primaryReadWindow, sharedMaxSize, TimeUnit.MILLISECONDS.toNanos(sharedTtlMillis));
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean isListening() {
+        return enabled;
+    }
+
+    /**
+     * 기억해 둔 결과가 없으면 loader 로 조회한다.
+     * loader 에는 정규화된 검색 조건을 넘기므로 키가 같으면 같은 쿼리가 실행된다.
+     * 결과는 여러 호출자가 같이 쓰므로 수정하지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String method, MemberSearchCondition condition, Pageable pageable,
+        Function<MemberSearchCondition, T> loader) {
+        MemberSearchKey searchKey = MemberSearchKey.of(condition);
+        if (!enabled || isReadWriteTransaction()) {
+            return loader.apply(searchKey.toCondition());
+        }
+
+        MemoKey key = new MemoKey(method, searchKey, pageable);
+        long currentGeneration = generation();
+        Map<MemoKey, Memo> scoped = scopedMemos();
+
+        Memo memo = scoped != null ? scoped.get(key) : null;
+        if (memo == null || memo.generation != currentGeneration) {
+            memo = sharedGet(key);
+            if (memo != null && scoped != null) {
+                scoped.put(key, memo);
+            }
+        }
+        if (memo != null) {
+            hit();
+            return (T) memo.value;
+        }
+
+        miss();
+        // 공유 캐시에 저장할 결과는 커밋 후 잠깐 동안 primary 에서 조회한다.
+        T value = isSharedEnabled()
+            ? refill(() -> loader.apply(searchKey.toCondition()))
+            : loader.apply(searchKey.toCondition());
+        memo = new Memo(value, currentGeneration);
+        if (scoped != null) {
+            scoped.put(key, memo);
+        }
+        sharedPut(key, memo, currentGeneration);
+        return value;
+    }
+
+    private static boolean isReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 현재 요청 또는 readOnly 트랜잭션의 memo, 둘 다 없으면 null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<MemoKey, Memo> scopedMemos() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Map<MemoKey, Memo> memos =
+                (Map<MemoKey, Memo>) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (memos == null) {
+                memos = new ConcurrentHashMap<>();
+                request.setAttribute(REQUEST_ATTRIBUTE, memos, RequestAttributes.SCOPE_REQUEST);
+            }
+            return memos;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<MemoKey, Memo> memos = (Map<MemoKey, Memo>) TransactionSynchronizationManager.getResource(this);
+        if (memos == null) {
+            Map<MemoKey, Memo> transactionMemos = new ConcurrentHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionMemos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberSearchMemo.this);
+                }
+            });
+            memos = transactionMemos;
+        }
+        return memos;
+    }
+
+    static final class MemoKey {
+
+        private final String method;
+        private final MemberSearchKey searchKey;
+        private final Pageable pageable;
+
+        private MemoKey(String method, MemberSearchKey searchKey, Pageable pageable) {
+            this.method = method;
+            this.searchKey = searchKey;
+            this.pageable = pageable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MemoKey)) {
+                return false;
+            }
+            MemoKey other = (MemoKey) o;
+            return method.equals(other.method)
+                && searchKey.equals(other.searchKey)
+                && Objects.equals(pageable, other.pageable);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, searchKey, pageable);
+        }
+    }
+
+    static final class Memo {
+
+        private final Object value;
+        private final long generation;
+
+        private Memo(Object value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+}
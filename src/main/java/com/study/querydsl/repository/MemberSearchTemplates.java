@@ -0,0 +1,179 @@
+package com.study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.QMemberTeamDto;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.QTeam;
+import com.study.querydsl.repository.MemberPredicates.SearchParam;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 회원 검색 JPQL 템플릿
+ * Querydsl 로 검색할 때마다 projection, join, where 식을 새로 만들고 JPQL 문자열로 직렬화 하는데,
+ * JPQL 은 값이 있는 조건의 조합 (username 방식 4 x containsText, teamName, ageGoe, ageLoe 유무 16 = 64가지) 으로만 달라진다.
+ * - 조합 별로 처음 한번만 MemberPredicates.search 에 값 대신 파라미터 (Param) 를 넣어 JPQLSerializer 로 직렬화해 둔다.
+ *   (조건식은 Querydsl 경로와 같은 정의를 사용한다)
+ * - 이후 호출은 저장해 둔 JPQL 로 쿼리를 만들고 값만 바인딩한다. JPQL 문자열이 같으므로 hibernate query plan cache 도 재사용된다.
+ * 조건은 정규화된 값이어야 한다. (MemberPredicates.normalize)
+ */
+@Component
+public class MemberSearchTemplates {
+
+    private static final QMemberTeamDto PROJECTION = new QMemberTeamDto(
+        QMember.member.id.as("memberId"),
+        QMember.member.username,
+        QMember.member.age,
+        QTeam.team.id.as("teamId"),
+        QTeam.team.name.as("teamName"));
+
+    private static final int CONTAINS_TEXT = 1 << 2;
+    private static final int TEAM_NAME = 1 << 3;
+    private static final int AGE_GOE = 1 << 4;
+    private static final int AGE_LOE = 1 << 5;
+
+    private final EntityManager em;
+
+    // 조건 조합 (mask) -> 템플릿, 처음 사용할 때 만든다.
+    private final Map<Integer, Template> contentTemplates = new ConcurrentHashMap<>();
+    private final Map<Integer, Template> countTemplates = new ConcurrentHashMap<>();
+
+    public MemberSearchTemplates(EntityManager em) {
+        this.em = em;
+    }
+
+    public List<MemberTeamDto> content(MemberSearchCondition condition, Pageable pageable) {
+        Query query = contentTemplates.computeIfAbsent(mask(condition), mask -> contentTemplate(condition))
+            .createQuery(em, condition);
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(PROJECTION.newInstance((Object[]) row));
+        }
+        return result;
+    }
+
+    public long count(MemberSearchCondition condition) {
+        return ((Number) countTemplates.computeIfAbsent(mask(condition), mask -> countTemplate(condition))
+            .createQuery(em, condition)
+            .getSingleResult()).longValue();
+    }
+
+    String contentJpql(MemberSearchCondition condition) {
+        return contentTemplates.computeIfAbsent(mask(condition), mask -> contentTemplate(condition)).jpql;
+    }
+
+    String countJpql(MemberSearchCondition condition) {
+        return countTemplates.computeIfAbsent(mask(condition), mask -> countTemplate(condition)).jpql;
+    }
+
+    private static Template contentTemplate(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<Void>()
+            .select(PROJECTION)
+            .from(QMember.member)
+            .leftJoin(QMember.member.team, QTeam.team)
+            .where(MemberPredicates.search(condition, MemberSearchTemplates::param));
+        return Template.of(query, false);
+    }
+
+    private static Template countTemplate(MemberSearchCondition condition) {
+        Predicate where = MemberPredicates.search(condition, MemberSearchTemplates::param);
+        JPAQuery<Long> query = new JPAQuery<Void>()
+            .select(QMember.member.id)
+            .from(QMember.member);
+        // searchPageComplex 의 countQuery 와 같은 join 규칙
+        return Template.of(MemberPredicates.joinTeamIfReferenced(query, where).where(where), true);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Expression<?> param(SearchParam searchParam) {
+        return new Param(searchParam.getType(), searchParam.name());
+    }
+
+    private static int mask(MemberSearchCondition condition) {
+        int mask = 0;
+        if (hasText(condition.getUsername())) {
+            mask |= MemberPredicates.usernameMatch(condition).ordinal() + 1;
+        }
+        if (hasText(condition.getContainsText())) {
+            mask |= CONTAINS_TEXT;
+        }
+        if (hasText(condition.getTeamName())) {
+            mask |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            mask |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            mask |= AGE_LOE;
+        }
+        return mask;
+    }
+
+    private static final class Template {
+
+        private final String jpql;
+        // JPQL 의 positions[i] 번째 파라미터에 params[i] 값을 바인딩한다. (params[i] 가 null 이면 고정 값 constants[i])
+        private final SearchParam[] params;
+        private final Object[] constants;
+        private final int[] positions;
+
+        private Template(String jpql, SearchParam[] params, Object[] constants, int[] positions) {
+            this.jpql = jpql;
+            this.params = params;
+            this.constants = constants;
+            this.positions = positions;
+        }
+
+        private static Template of(JPAQuery<?> query, boolean forCount) {
+            JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+            serializer.serialize(query.getMetadata(), forCount, null);
+
+            Map<Object, String> labels = serializer.getConstantToLabel();
+            SearchParam[] params = new SearchParam[labels.size()];
+            Object[] constants = new Object[labels.size()];
+            int[] positions = new int[labels.size()];
+            int i = 0;
+            for (Map.Entry<Object, String> label : labels.entrySet()) {
+                if (label.getKey() instanceof Param) {
+                    params[i] = SearchParam.valueOf(((Param<?>) label.getKey()).getName());
+                } else {
+                    constants[i] = label.getKey();
+                }
+                positions[i] = Integer.parseInt(label.getValue());
+                i++;
+            }
+            return new Template(serializer.toString(), params, constants, positions);
+        }
+
+        private Query createQuery(EntityManager em, MemberSearchCondition condition) {
+            Query query = em.createQuery(jpql);
+            for (int i = 0; i < params.length; i++) {
+                query.setParameter(positions[i], params[i] != null ? params[i].value(condition) : constants[i]);
+            }
+            return query;
+        }
+    }
+}
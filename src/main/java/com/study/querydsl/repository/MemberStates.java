@@ -0,0 +1,36 @@
+package com.study.querydsl.repository;
+
+import com.study.querydsl.entity.Team;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * hibernate 이벤트의 member 상태 배열 (state, oldState) 에서 값 꺼내기
+ */
+final class MemberStates {
+
+    private MemberStates() {
+    }
+
+    static Long teamId(EntityPersister persister, Object[] state) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            // 지연 로딩 프록시를 초기화하지 않고 식별자만 꺼낸다.
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+
+    static int age(EntityPersister persister, Object[] state) {
+        return (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+    }
+
+    static String username(EntityPersister persister, Object[] state) {
+        return (String) state[persister.getEntityMetamodel().getPropertyIndex("username")];
+    }
+}
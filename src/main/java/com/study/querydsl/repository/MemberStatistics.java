@@ -0,0 +1,164 @@
+package com.study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.TeamStatisticsDto;
+import com.study.querydsl.entity.QMember;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 검색 결과 개수 추정용 통계
+ * - 팀 별 회원 수, 최소/최대 나이는 팀 집계 (team_statistics, TeamStatisticsRepository) 를 그대로 사용한다.
+ *   member 를 따로 group by 하지 않는다. team 없는 회원만 따로 센다. (idx_member_team_age)
+ * - team 조건은 정확하고, 나이 조건은 팀 안에서 나이가 최소~최대 사이에 고르게 분포한다고 가정한다.
+ * - username, prefix, 부분 문자열 (containsText) 조건은 팀 집계로 선택도를 알 수 없으므로 추정하지 않는다. -> count 쿼리
+ *   (username 조건은 인덱스로 범위가 좁혀지므로 count 쿼리도 싸다)
+ * 애플리케이션이 시작된 후 (SmartLifecycle) 백그라운드 스레드에서 refreshSeconds 마다 다시 읽고, 종료할 때 멈춘다.
+ * 요청 스레드는 통계를 읽거나 기다리지 않고 마지막 통계를 사용한다. (아직 없으면 추정하지 않는다)
+ */
+@Slf4j
+@Component
+public class MemberStatistics implements SmartLifecycle {
+
+    private final TeamStatisticsRepository teamStatisticsRepository;
+    private final JPAQueryFactory queryFactory;
+    private final long refreshSeconds;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile Snapshot snapshot;
+
+    public MemberStatistics(TeamStatisticsRepository teamStatisticsRepository, JPAQueryFactory queryFactory,
+        @Value("${member.statistics.refresh-seconds:60}") long refreshSeconds) {
+        this.teamStatisticsRepository = teamStatisticsRepository;
+        this.queryFactory = queryFactory;
+        this.refreshSeconds = refreshSeconds;
+    }
+
+    /**
+     * 통계가 아직 없거나 추정할 수 없는 조건이면 empty -> 호출한 쪽에서 count 쿼리를 실행한다.
+     */
+    public OptionalLong estimateCount(MemberSearchCondition condition) {
+        Snapshot current = snapshot;
+        if (current == null || hasText(condition.getUsername()) || hasText(condition.getContainsText())) {
+            return OptionalLong.empty();
+        }
+
+        double count = 0;
+        for (Bucket bucket : current.buckets) {
+            count += bucket.estimate(condition);
+        }
+        return OptionalLong.of(Math.round(count));
+    }
+
+    public synchronized void refresh() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (TeamStatisticsDto team : teamStatisticsRepository.findAll()) {
+            buckets.add(new Bucket(team.getTeamName(), team.getMemberCount(), team.getMinAge(), team.getMaxAge()));
+        }
+
+        Tuple noTeam = queryFactory
+            .select(QMember.member.count(), QMember.member.age.min(), QMember.member.age.max())
+            .from(QMember.member)
+            .where(QMember.member.team.isNull())
+            .fetchOne();
+        buckets.add(new Bucket(null, noTeam.get(QMember.member.count()), noTeam.get(QMember.member.age.min()),
+            noTeam.get(QMember.member.age.max())));
+
+        snapshot = new Snapshot(buckets);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return refreshSeconds > 0;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("member-statistics-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, TimeUnit.SECONDS.toMillis(refreshSeconds));
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void refreshQuietly() {
+        // 예외가 나가면 다음 실행이 취소되므로 로그만 남긴다.
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("member statistics refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    private static class Snapshot {
+
+        private final List<Bucket> buckets;
+
+        private Snapshot(List<Bucket> buckets) {
+            this.buckets = buckets;
+        }
+    }
+
+    /**
+     * 한 팀 (teamName 이 null 이면 team 없는 회원) 의 회원 수와 나이 범위
+     */
+    private static class Bucket {
+
+        private final String teamName;
+        private final long count;
+        private final Integer minAge;
+        private final Integer maxAge;
+
+        private Bucket(String teamName, long count, Integer minAge, Integer maxAge) {
+            this.teamName = teamName;
+            this.count = count;
+            this.minAge = minAge;
+            this.maxAge = maxAge;
+        }
+
+        private double estimate(MemberSearchCondition condition) {
+            if (hasText(condition.getTeamName()) && !Objects.equals(condition.getTeamName(), teamName)) {
+                return 0;
+            }
+            if (count == 0 || minAge == null || maxAge == null) {
+                return 0;
+            }
+            int from = condition.getAgeGoe() != null ? Math.max(minAge, condition.getAgeGoe()) : minAge;
+            int to = condition.getAgeLoe() != null ? Math.min(maxAge, condition.getAgeLoe()) : maxAge;
+            if (from > to) {
+                return 0;
+            }
+            return count * ((double) to - from + 1) / ((double) maxAge - minAge + 1);
+        }
+    }
+}
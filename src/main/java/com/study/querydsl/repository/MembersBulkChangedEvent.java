@@ -0,0 +1,27 @@
+package com.study.querydsl.repository;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 엔티티 이벤트 없이 (벌크 update, delete) member 가 바뀌었음을 알리는 이벤트
+ * 바뀐 row 를 알 수 없으므로 member 를 기억하는 곳 (MemberCountCache, MemberSearchMemo, MemberSearchIndex,
+ * UsernameNgramIndex) 은 이 이벤트를 받아서 각자 전체를 무효화한다.
+ * 벌크 연산을 실행한 트랜잭션 안에서 발행한다. (리스너는 같은 스레드, 같은 트랜잭션에서 실행되므로 커밋 후 처리도 등록할 수 있다)
+ */
+public final class MembersBulkChangedEvent {
+
+    private final long affectedRows;
+
+    public MembersBulkChangedEvent(long affectedRows) {
+        this.affectedRows = affectedRows;
+    }
+
+    public long getAffectedRows() {
+        return affectedRows;
+    }
+
+    @Override
+    public String toString() {
+        return "MembersBulkChangedEvent{affectedRows=" + affectedRows + "}";
+    }
+}
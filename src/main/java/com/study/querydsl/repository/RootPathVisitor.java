@@ -0,0 +1,90 @@
+package com.study.querydsl.repository;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import java.util.List;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 식(where 조건 등)이 특정 root path (ex. QTeam.team) 를 참조하는지 확인한다.
+ * 참조하지 않는다면 해당 엔티티로의 join 을 생략할 수 있다.
+ */
+final class RootPathVisitor implements Visitor<Boolean, Path<?>> {
+
+    private static final RootPathVisitor DEFAULT = new RootPathVisitor();
+
+    private RootPathVisitor() {
+    }
+
+    /**
+     * null 인 식은 Querydsl where 절에서 무시되므로 참조하지 않는 것으로 본다.
+     */
+    static boolean references(Path<?> root, Expression<?>... expressions) {
+        for (Expression<?> expression : expressions) {
+            if (expression != null && expression.accept(DEFAULT, root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Boolean visit(Constant<?> expr, Path<?> root) {
+        return false;
+    }
+
+    @Override
+    public Boolean visit(FactoryExpression<?> expr, Path<?> root) {
+        return visitArgs(expr.getArgs(), root);
+    }
+
+    @Override
+    public Boolean visit(Operation<?> expr, Path<?> root) {
+        return visitArgs(expr.getArgs(), root);
+    }
+
+    @Override
+    public Boolean visit(ParamExpression<?> expr, Path<?> root) {
+        return false;
+    }
+
+    @Override
+    public Boolean visit(Path<?> expr, Path<?> root) {
+        return root.equals(expr.getRoot());
+    }
+
+    /**
+     * 서브쿼리는 바깥 alias 를 참조할 수 있으므로 보수적으로 참조한다고 판단한다.
+     */
+    @Override
+    public Boolean visit(SubQueryExpression<?> expr, Path<?> root) {
+        return true;
+    }
+
+    @Override
+    public Boolean visit(TemplateExpression<?> expr, Path<?> root) {
+        for (Object arg : expr.getArgs()) {
+            if (arg instanceof Expression && ((Expression<?>) arg).accept(this, root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Boolean visitArgs(List<Expression<?>> args, Path<?> root) {
+        for (Expression<?> arg : args) {
+            if (arg.accept(this, root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package com.study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.QTeam;
+import com.study.querydsl.entity.Team;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * Team 은 변경이 거의 없으므로 2차 캐시 (region: team) 와 쿼리 캐시 (region: team-by-name) 를 사용한다.
+ * - hibernate 를 통한 쓰기 (persist, 변경 감지, 벌크 JPQL) 는 캐시가 자동으로 갱신/무효화 된다.
+ * - DB 를 직접 수정한 경우 evictCache() 로 비워준다.
+ */
+@Repository
+public class TeamJpaRepository {
+
+    static final String TEAM_BY_NAME_REGION = "team-by-name";
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public TeamJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    public void save(Team team) {
+        em.persist(team);
+    }
+
+    public Optional<Team> findById(Long id) {
+        return Optional.ofNullable(em.find(Team.class, id));
+    }
+
+    public Optional<Team> findByName(String name) {
+        Team team = queryFactory
+            .selectFrom(QTeam.team)
+            .where(QTeam.team.name.eq(name))
+            .setHint(QueryHints.HINT_CACHEABLE, true)
+            .setHint(QueryHints.HINT_CACHE_REGION, TEAM_BY_NAME_REGION)
+            .fetchFirst();
+        return Optional.ofNullable(team);
+    }
+
+    public void evictCache() {
+        SessionFactory sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Team.class);
+        sessionFactory.getCache().evictQueryRegion(TEAM_BY_NAME_REGION);
+    }
+}
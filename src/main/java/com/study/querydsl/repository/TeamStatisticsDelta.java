@@ -0,0 +1,76 @@
+package com.study.querydsl.repository;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 한 트랜잭션 동안 한 팀에 생긴 회원 변경량
+ */
+class TeamStatisticsDelta {
+
+    private long memberCount;
+    private long ageSum;
+    private Integer addedMinAge;
+    private Integer addedMaxAge;
+    // 회원이 빠지거나 나이가 바뀌면 min, max 는 증분으로 알 수 없으므로 다시 구한다.
+    private boolean minMaxStale;
+    // 이전 값을 알 수 없는 변경이 있으면 팀 전체를 다시 계산한다.
+    private boolean stale;
+
+    void add(int age) {
+        memberCount++;
+        ageSum += age;
+        addedMinAge = addedMinAge == null ? age : Math.min(addedMinAge, age);
+        addedMaxAge = addedMaxAge == null ? age : Math.max(addedMaxAge, age);
+    }
+
+    void remove(int age) {
+        memberCount--;
+        ageSum -= age;
+        minMaxStale = true;
+    }
+
+    /**
+     * 벌크 delete 로 빠진 회원들 (count 명, 나이 합 ageSum)
+     */
+    void removeAll(long count, long ageSum) {
+        memberCount -= count;
+        this.ageSum -= ageSum;
+        minMaxStale = true;
+    }
+
+    /**
+     * 벌크 update 로 count 명의 나이가 amount 만큼 바뀐 경우
+     */
+    void addAges(long count, int amount) {
+        ageSum += count * amount;
+        minMaxStale = true;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    long getMemberCount() {
+        return memberCount;
+    }
+
+    long getAgeSum() {
+        return ageSum;
+    }
+
+    Integer getAddedMinAge() {
+        return addedMinAge;
+    }
+
+    Integer getAddedMaxAge() {
+        return addedMaxAge;
+    }
+
+    boolean isMinMaxStale() {
+        return minMaxStale;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+}
@@ -0,0 +1,102 @@
+package com.study.querydsl.repository;
+
+import static com.study.querydsl.repository.MemberStates.age;
+import static com.study.querydsl.repository.MemberStates.teamId;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.TeamStatisticsRepository.PendingChanges;
+import java.util.Objects;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member insert, update, delete 를 팀 별 변경량으로 모아 두었다가 커밋 직전에 team_statistics 에 반영한다.
+ * (변경량은 TeamStatisticsRepository 가 트랜잭션 별로 들고 있다가 커밋 직전에 반영한다)
+ * - flush 도중에는 EntityManager 를 쓰면 안 되므로 이벤트에서는 변경량만 쌓는다.
+ * - team insert 는 집계 row 를 만들 팀으로, team delete 는 집계 row 를 지울 팀으로 기록한다.
+ * - 벌크 연산은 이벤트가 발생하지 않으므로 MemberJpaRepository 에서 rebuild 한다. (쌓인 변경량은 rebuild 가 버린다)
+ */
+@Component
+public class TeamStatisticsEventListener extends EntityChangeListenerSupport {
+
+    private final TeamStatisticsRepository teamStatisticsRepository;
+
+    public TeamStatisticsEventListener(EntityManagerFactory emf, TeamStatisticsRepository teamStatisticsRepository) {
+        super(emf);
+        this.teamStatisticsRepository = teamStatisticsRepository;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(event.getPersister(), event.getState());
+        } else if (event.getEntity() instanceof Team) {
+            PendingChanges changes = teamStatisticsRepository.pendingChanges();
+            if (changes != null) {
+                changes.teamAdded((Long) event.getId());
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        if (oldState == null) {
+            // 준영속 엔티티를 update 한 경우 이전 값을 알 수 없으므로 팀 전체를 다시 계산한다.
+            PendingChanges changes = teamStatisticsRepository.pendingChanges();
+            if (changes != null) {
+                Long teamId = teamId(persister, state);
+                if (teamId != null) {
+                    changes.delta(teamId).markStale();
+                }
+            }
+            return;
+        }
+        if (Objects.equals(teamId(persister, oldState), teamId(persister, state))
+            && age(persister, oldState) == age(persister, state)) {
+            return;
+        }
+        remove(persister, oldState);
+        add(persister, state);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            remove(event.getPersister(), event.getDeletedState());
+        } else if (event.getEntity() instanceof Team) {
+            PendingChanges changes = teamStatisticsRepository.pendingChanges();
+            if (changes != null) {
+                changes.teamRemoved((Long) event.getId());
+            }
+        }
+    }
+
+    private void add(EntityPersister persister, Object[] state) {
+        Long teamId = teamId(persister, state);
+        PendingChanges changes = teamStatisticsRepository.pendingChanges();
+        if (teamId != null && changes != null) {
+            changes.delta(teamId).add(age(persister, state));
+        }
+    }
+
+    private void remove(EntityPersister persister, Object[] state) {
+        Long teamId = teamId(persister, state);
+        PendingChanges changes = teamStatisticsRepository.pendingChanges();
+        if (teamId != null && changes != null) {
+            changes.delta(teamId).remove(age(persister, state));
+        }
+    }
+}
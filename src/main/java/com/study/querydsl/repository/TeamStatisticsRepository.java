@@ -0,0 +1,393 @@
+package com.study.querydsl.repository;
+
+import static com.study.querydsl.entity.QTeamStatistics.teamStatistics;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import com.study.querydsl.dto.QTeamStatisticsDto;
+import com.study.querydsl.dto.TeamStatisticsDto;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.QTeam;
+import com.study.querydsl.entity.TeamStatistics;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 팀 별 집계 조회 - member 를 group by 하지 않고 team_statistics 에서 팀 수 만큼만 읽는다.
+ * (QuerydslBasicTest.groupBy, aggregation 참고)
+ * 집계 row 는 팀을 만든 트랜잭션에서 한 번만 insert 하고, 이후에는 update 만 한다. (동시에 insert 해서 PK 충돌이 나지 않도록)
+ * 변경량 반영 (apply) 과 rebuild 모두 집계 row 를 teamId 순서로 잠그고 쓰므로 서로 섞이지 않는다.
+ * 엔티티 이벤트가 없는 벌크 연산은 실행 전에 bulkRemoving, bulkAgesAdding, bulkChanging 으로 변경량을 쌓는다.
+ * (rebuild 처럼 모든 집계 row 를 잠그지 않고, 커밋 직전에 바뀐 팀의 row 만 update 한다)
+ */
+@Slf4j
+@Repository
+public class TeamStatisticsRepository {
+
+    // age.sum() 은 Integer 로 변환되므로 long 으로 받는다.
+    private static final NumberExpression<Long> AGE_SUM = Expressions.numberTemplate(Long.class, "sum({0})",
+        QMember.member.age);
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public TeamStatisticsRepository(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    public List<TeamStatisticsDto> findAll() {
+        return queryFactory
+            .select(new QTeamStatisticsDto(
+                teamStatistics.teamId,
+                QTeam.team.name,
+                teamStatistics.memberCount,
+                teamStatistics.ageSum,
+                teamStatistics.minAge,
+                teamStatistics.maxAge))
+            .from(teamStatistics)
+            .join(QTeam.team).on(teamStatistics.teamId.eq(QTeam.team.id))
+            .orderBy(QTeam.team.name.asc())
+            .fetch();
+    }
+
+    public Optional<TeamStatisticsDto> findByTeamName(String teamName) {
+        TeamStatisticsDto result = queryFactory
+            .select(new QTeamStatisticsDto(
+                teamStatistics.teamId,
+                QTeam.team.name,
+                teamStatistics.memberCount,
+                teamStatistics.ageSum,
+                teamStatistics.minAge,
+                teamStatistics.maxAge))
+            .from(teamStatistics)
+            .join(QTeam.team).on(teamStatistics.teamId.eq(QTeam.team.id))
+            .where(QTeam.team.name.eq(teamName))
+            .fetchFirst();
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * member 를 group by 해서 전체를 다시 계산한다. (벌크 연산처럼 이벤트 없이 member 가 바뀐 경우)
+     * - 이 트랜잭션에 지금까지 쌓인 변경량은 버린다. (다시 계산한 값에 이미 포함되어 있다)
+     * - 집계 row 를 먼저 모두 잠근 후 계산한다. 변경량을 반영 중인 트랜잭션이 있으면 커밋할 때 까지 기다리고,
+     *   이후에 반영하려는 트랜잭션은 rebuild 가 커밋할 때 까지 기다린다.
+     * 트랜잭션 안에서 호출한다.
+     */
+    public void rebuild() {
+        // 벌크 연산 전에 auto flush 된 변경까지 모두 이벤트로 받은 뒤에 버린다.
+        em.flush();
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.clear();
+        }
+
+        Set<Long> existingTeamIds = new HashSet<>();
+        for (TeamStatistics locked : lockAll()) {
+            existingTeamIds.add(locked.getTeamId());
+            em.detach(locked);
+        }
+
+        Map<Long, Tuple> aggregates = new HashMap<>();
+        for (Tuple row : queryFactory
+            .select(QMember.member.team.id, QMember.member.count(), AGE_SUM,
+                QMember.member.age.min(), QMember.member.age.max())
+            .from(QMember.member)
+            .where(QMember.member.team.isNotNull())
+            .groupBy(QMember.member.team.id)
+            .fetch()) {
+            aggregates.put(row.get(QMember.member.team.id), row);
+        }
+
+        List<Long> teamIds = queryFactory
+            .select(QTeam.team.id)
+            .from(QTeam.team)
+            .orderBy(QTeam.team.id.asc())
+            .fetch();
+
+        for (Long teamId : teamIds) {
+            Tuple row = aggregates.get(teamId);
+            TeamStatistics statistics = row == null
+                ? new TeamStatistics(teamId, 0, 0, null, null)
+                : new TeamStatistics(teamId, row.get(QMember.member.count()), row.get(AGE_SUM),
+                    row.get(QMember.member.age.min()), row.get(QMember.member.age.max()));
+
+            if (existingTeamIds.remove(teamId) || lock(teamId) != null) {
+                overwrite(statistics);
+            } else {
+                // 집계 기능 전에 만들어진 팀
+                em.persist(statistics);
+            }
+        }
+
+        // 삭제된 팀
+        if (!existingTeamIds.isEmpty()) {
+            queryFactory.delete(teamStatistics).where(teamStatistics.teamId.in(existingTeamIds)).execute();
+        }
+        em.flush();
+    }
+
+    /**
+     * where 에 해당하는 member 를 벌크 delete 하기 전에 호출한다. 지울 member 를 팀 별로 집계해서 변경량에서 뺀다.
+     * 트랜잭션 안에서 호출한다.
+     */
+    public void bulkRemoving(Predicate where) {
+        PendingChanges changes = requirePendingChanges();
+        for (Tuple row : aggregateByTeam(where)) {
+            changes.delta(row.get(QMember.member.team.id))
+                .removeAll(row.get(QMember.member.count()), row.get(AGE_SUM));
+        }
+    }
+
+    /**
+     * where 에 해당하는 member 의 나이를 벌크 update 로 amount 만큼 바꾸기 전에 호출한다.
+     * 트랜잭션 안에서 호출한다.
+     */
+    public void bulkAgesAdding(Predicate where, int amount) {
+        PendingChanges changes = requirePendingChanges();
+        for (Tuple row : aggregateByTeam(where)) {
+            changes.delta(row.get(QMember.member.team.id)).addAges(row.get(QMember.member.count()), amount);
+        }
+    }
+
+    /**
+     * 바뀌는 값을 알 수 없는 벌크 update 전후에 호출한다. where 에 해당하는 member 의 팀은 커밋 직전에 그 팀만 다시 계산한다.
+     * (update 로 team 이 바뀔 수 있으므로 update 후에도 호출한다)
+     * 트랜잭션 안에서 호출한다.
+     */
+    public void bulkChanging(Predicate where) {
+        PendingChanges changes = requirePendingChanges();
+        em.flush();
+        for (Long teamId : queryFactory
+            .select(QMember.member.team.id)
+            .distinct()
+            .from(QMember.member)
+            .where(where, QMember.member.team.isNotNull())
+            .fetch()) {
+            changes.delta(teamId).markStale();
+        }
+    }
+
+    private List<Tuple> aggregateByTeam(Predicate where) {
+        // 이 트랜잭션에서 아직 flush 되지 않은 member 변경도 이벤트로 먼저 반영하고 집계에 포함한다.
+        em.flush();
+        return queryFactory
+            .select(QMember.member.team.id, QMember.member.count(), AGE_SUM)
+            .from(QMember.member)
+            .where(where, QMember.member.team.isNotNull())
+            .groupBy(QMember.member.team.id)
+            .fetch();
+    }
+
+    private PendingChanges requirePendingChanges() {
+        PendingChanges changes = pendingChanges();
+        if (changes == null) {
+            throw new IllegalStateException("team statistics of a bulk operation must be recorded in a transaction");
+        }
+        return changes;
+    }
+
+    /**
+     * 현재 트랜잭션에서 아직 반영하지 않은 변경량 (TeamStatisticsEventListener 가 쌓는다)
+     * 트랜잭션 동기화가 없으면 (트랜잭션 밖) null
+     */
+    PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 트랜잭션 커밋 직전에 호출된다. (member 변경은 이미 flush 된 상태)
+     */
+    private void apply(PendingChanges changes) {
+        // 새 팀의 집계 row 는 팀을 만든 이 트랜잭션만 insert 할 수 있다.
+        for (Long teamId : changes.addedTeamIds) {
+            if (!changes.removedTeamIds.contains(teamId)) {
+                em.persist(new TeamStatistics(teamId, 0, 0, null, null));
+            }
+        }
+        em.flush();
+
+        // rebuild 와 같은 순서 (teamId) 로 잠근다. (deadlock 방지)
+        new TreeMap<>(changes.deltas).forEach((teamId, delta) -> {
+            if (!changes.removedTeamIds.contains(teamId)) {
+                apply(teamId, delta);
+            }
+        });
+
+        if (!changes.removedTeamIds.isEmpty()) {
+            queryFactory.delete(teamStatistics).where(teamStatistics.teamId.in(changes.removedTeamIds)).execute();
+        }
+    }
+
+    private void apply(Long teamId, TeamStatisticsDelta delta) {
+        if (delta.isStale()) {
+            // 잠근 후에 계산해야 먼저 커밋된 다른 트랜잭션의 member 가 포함된다.
+            if (lock(teamId) == null) {
+                log.warn("team_statistics row for team {} is missing, run rebuild()", teamId);
+                return;
+            }
+            overwrite(aggregate(teamId));
+            return;
+        }
+
+        JPAUpdateClause update = queryFactory
+            .update(teamStatistics)
+            .set(teamStatistics.memberCount, teamStatistics.memberCount.add(delta.getMemberCount()))
+            .set(teamStatistics.ageSum, teamStatistics.ageSum.add(delta.getAgeSum()))
+            .where(teamStatistics.teamId.eq(teamId));
+
+        if (delta.getAddedMinAge() != null) {
+            update
+                .set(teamStatistics.minAge, new CaseBuilder()
+                    .when(teamStatistics.minAge.isNull().or(teamStatistics.minAge.gt(delta.getAddedMinAge())))
+                    .then(delta.getAddedMinAge())
+                    .otherwise(teamStatistics.minAge))
+                .set(teamStatistics.maxAge, new CaseBuilder()
+                    .when(teamStatistics.maxAge.isNull().or(teamStatistics.maxAge.lt(delta.getAddedMaxAge())))
+                    .then(delta.getAddedMaxAge())
+                    .otherwise(teamStatistics.maxAge));
+        }
+
+        if (update.execute() == 0) {
+            // insert 는 팀을 만든 트랜잭션과 rebuild 만 한다.
+            log.warn("team_statistics row for team {} is missing, run rebuild()", teamId);
+            return;
+        }
+
+        if (delta.isMinMaxStale()) {
+            // update 로 row 를 잠근 상태이므로 다른 트랜잭션과 섞이지 않는다.
+            Tuple minMax = queryFactory
+                .select(QMember.member.age.min(), QMember.member.age.max())
+                .from(QMember.member)
+                .where(QMember.member.team.id.eq(teamId))
+                .fetchOne();
+
+            queryFactory
+                .update(teamStatistics)
+                .set(teamStatistics.minAge, minMax.get(QMember.member.age.min()))
+                .set(teamStatistics.maxAge, minMax.get(QMember.member.age.max()))
+                .where(teamStatistics.teamId.eq(teamId))
+                .execute();
+        }
+    }
+
+    private List<TeamStatistics> lockAll() {
+        return queryFactory
+            .selectFrom(teamStatistics)
+            .orderBy(teamStatistics.teamId.asc())
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .fetch();
+    }
+
+    private TeamStatistics lock(Long teamId) {
+        TeamStatistics locked = queryFactory
+            .selectFrom(teamStatistics)
+            .where(teamStatistics.teamId.eq(teamId))
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .fetchOne();
+        if (locked != null) {
+            em.detach(locked);
+        }
+        return locked;
+    }
+
+    private void overwrite(TeamStatistics statistics) {
+        queryFactory
+            .update(teamStatistics)
+            .set(teamStatistics.memberCount, statistics.getMemberCount())
+            .set(teamStatistics.ageSum, statistics.getAgeSum())
+            .set(teamStatistics.minAge, statistics.getMinAge())
+            .set(teamStatistics.maxAge, statistics.getMaxAge())
+            .where(teamStatistics.teamId.eq(statistics.getTeamId()))
+            .execute();
+    }
+
+    private TeamStatistics aggregate(Long teamId) {
+        Tuple row = queryFactory
+            .select(QMember.member.count(), AGE_SUM, QMember.member.age.min(), QMember.member.age.max())
+            .from(QMember.member)
+            .where(QMember.member.team.id.eq(teamId))
+            .fetchOne();
+
+        Long sum = row.get(AGE_SUM);
+        return new TeamStatistics(teamId, row.get(QMember.member.count()), sum == null ? 0 : sum,
+            row.get(QMember.member.age.min()), row.get(QMember.member.age.max()));
+    }
+
+    /**
+     * 한 트랜잭션 동안 쌓인 팀 별 변경량, 커밋 직전에 반영한다.
+     */
+    class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, TeamStatisticsDelta> deltas = new HashMap<>();
+        private final Set<Long> addedTeamIds = new LinkedHashSet<>();
+        private final Set<Long> removedTeamIds = new HashSet<>();
+
+        TeamStatisticsDelta delta(Long teamId) {
+            return deltas.computeIfAbsent(teamId, id -> new TeamStatisticsDelta());
+        }
+
+        void teamAdded(Long teamId) {
+            addedTeamIds.add(teamId);
+        }
+
+        void teamRemoved(Long teamId) {
+            removedTeamIds.add(teamId);
+        }
+
+        private void clear() {
+            deltas.clear();
+            addedTeamIds.clear();
+            removedTeamIds.clear();
+        }
+
+        private boolean isEmpty() {
+            return deltas.isEmpty() && addedTeamIds.isEmpty() && removedTeamIds.isEmpty();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (readOnly) {
+                return;
+            }
+            // 아직 flush 되지 않은 member 변경도 이벤트로 모은 뒤 반영한다.
+            em.flush();
+            if (!isEmpty()) {
+                apply(this);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TeamStatisticsRepository.this);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.study.querydsl.repository;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.QMember;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * username 부분 문자열 검색 (MemberSearchCondition.containsText) 용 n-gram 역색인
+ * - 소문자 username 을 3글자 단위 (trigram) 로 잘라서 trigram -> member id 목록을 저장한다.
+ *   소문자는 로딩, 변경 반영, 검색어 모두 Java 에서 (Locale.ROOT) 바꾼다. DB 의 lower() 와 다를 수 있으므로
+ *   찾은 id 로 조회할 때 DB 에서 조건을 다시 확인한다. (MemberQueryRepository.search)
+ *   id 목록은 정렬된 long[] 이다. (Set&lt;Long&gt; 처럼 id 마다 객체를 만들지 않는다)
+ * - 검색어의 trigram 목록을 모두 가진 id 를 후보로 뽑고, 실제로 검색어를 포함하는지 확인한다. (대소문자 무시)
+ *   가장 짧은 목록을 돌면서 나머지 목록은 이진 탐색으로 확인하므로 결과도 id 순서이다.
+ * - 검색어가 3글자보다 짧으면 메모리의 username 전체를 확인한다. (DB like '%x%' 보다는 빠르다)
+ * - 결과가 maxCandidates 개를 넘으면 null -> 호출한 쪽은 DB 에서 like 로 조회한다.
+ *   (흔한 검색어의 id 목록으로 id in 조회를 여러 번 하거나 큰 목록을 만들지 않도록)
+ * - 커밋된 변경만 반영한다. 로딩 전, 벌크 연산 후 (stale) 에는 null 을 돌려주고 백그라운드에서 다시 로딩한다.
+ *   (MemberIndexSupport)
+ */
+@Component
+public class UsernameNgramIndex extends MemberIndexSupport<UsernameNgramIndex.Grams> {
+
+    static final int GRAM = 3;
+    private static final int LOAD_FETCH_SIZE = 1_000;
+
+    private final JPAQueryFactory queryFactory;
+    private final int maxCandidates;
+
+    // write lock 안에서 바꾸고, 다시 로딩하면 새로 만든 것으로 바꾼다.
+    private Grams grams = new Grams();
+
+    public UsernameNgramIndex(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+        @Value("${member.username-ngram.enabled:false}") boolean enabled,
+        @Value("${member.username-ngram.max-candidates:1000}") int maxCandidates) {
+        super(transactionManager, "username-ngram-index-", enabled);
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException(
+                "member.username-ngram.max-candidates must be greater than 0: " + maxCandidates);
+        }
+        this.queryFactory = queryFactory;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * username 에 text 가 포함된 (대소문자 무시) member id, id 순서
+     * 인덱스를 사용할 수 없거나 maxCandidates 개를 넘으면 null
+     */
+    public List<Long> find(String text) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String needle = lower(text);
+        return readIfFresh(() -> needle.length() < GRAM ? grams.scan(needle, maxCandidates)
+            : grams.lookup(needle, maxCandidates));
+    }
+
+    /**
+     * id 순서로 읽으면 posting 목록 끝에 붙이기만 하면 된다. JDBC cursor 로 한 row 씩 읽는다.
+     */
+    @Override
+    protected Grams load() {
+        Grams loaded = new Grams();
+        try (CloseableIterator<Tuple> rows = queryFactory
+            .select(QMember.member.id, QMember.member.username)
+            .from(QMember.member)
+            .orderBy(QMember.member.id.asc())
+            .setHint(QueryHints.HINT_FETCH_SIZE, LOAD_FETCH_SIZE)
+            .iterate()) {
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                loaded.putLower(row.get(QMember.member.id), lower(row.get(QMember.member.username)));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    protected void replace(Grams loaded) {
+        grams = loaded;
+    }
+
+    public int size() {
+        return grams.usernames.size();
+    }
+
+    void put(Long id, String username) {
+        grams.putLower(id, lower(username));
+    }
+
+    private static String lower(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    void remove(Long id) {
+        grams.remove(id);
+    }
+
+    static Set<String> grams(String value) {
+        if (value.length() < GRAM) {
+            return new HashSet<>(Arrays.asList(value));
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * member id -> 소문자 username, trigram -> member id 목록
+     */
+    static final class Grams {
+
+        private final Map<Long, String> usernames = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        private void remove(Long id) {
+            String previous = usernames.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : grams(previous)) {
+                Postings ids = postings.get(gram);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        private void putLower(Long id, String lowerUsername) {
+            remove(id);
+            if (lowerUsername == null) {
+                return;
+            }
+            usernames.put(id, lowerUsername);
+            for (String gram : grams(lowerUsername)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        }
+
+        private List<Long> lookup(String needle, int maxCandidates) {
+            List<Postings> candidates = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                Postings ids = postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                candidates.add(ids);
+            }
+            // 가장 작은 목록을 돌면서 나머지 목록에 있는지 확인한다.
+            candidates.sort(Comparator.comparingInt(ids -> ids.size));
+
+            List<Long> result = new ArrayList<>();
+            Postings smallest = candidates.get(0);
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                if (containsAll(candidates, id) && usernames.get(id).contains(needle)) {
+                    if (result.size() == maxCandidates) {
+                        return null;
+                    }
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private static boolean containsAll(List<Postings> candidates, long id) {
+            for (int i = 1; i < candidates.size(); i++) {
+                if (!candidates.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private List<Long> scan(String needle, int maxCandidates) {
+            List<Long> result = new ArrayList<>();
+            for (Map.Entry<Long, String> entry : usernames.entrySet()) {
+                if (entry.getValue().contains(needle)) {
+                    if (result.size() == maxCandidates) {
+                        return null;
+                    }
+                    result.add(entry.getKey());
+                }
+            }
+            result.sort(Comparator.naturalOrder());
+            return result;
+        }
+    }
+
+    /**
+     * 한 trigram 의 member id 목록, 정렬된 long[] (앞의 size 개만 사용)
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            // 대부분 새 id 는 가장 크므로 끝에 붙인다.
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.study.querydsl.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 청크 단위 벌크 연산의 진행 상황 (청크가 커밋될 때 마다 전달)
+ */
+@Getter
+@ToString
+public class BulkProgress {
+
+    // 지금까지 커밋된 청크 수
+    private final int chunks;
+    // 지금까지 update, delete 된 row 수
+    private final long affectedRows;
+    // 마지막으로 처리한 member id (다음 청크는 이 id 다음부터)
+    private final Long lastId;
+    private final long elapsedMillis;
+    // 모든 청크를 처리했으면 true
+    private final boolean done;
+
+    public BulkProgress(int chunks, long affectedRows, Long lastId, long elapsedMillis, boolean done) {
+        this.chunks = chunks;
+        this.affectedRows = affectedRows;
+        this.lastId = lastId;
+        this.elapsedMillis = elapsedMillis;
+        this.done = done;
+    }
+}
@@ -0,0 +1,187 @@
+package com.study.querydsl.service;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.repository.MembersBulkChangedEvent;
+import com.study.querydsl.repository.TeamStatisticsRepository;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * member 벌크 update, delete 를 id 범위 청크로 나눠서 실행한다. (QuerydslBasicTest.bulkUpdate, bulkAdd, bulkDelete 참고)
+ * - 테이블 전체를 한 문장으로 바꾸면 그 동안 많은 row 에 lock 이 걸리므로, chunkSize 개의 id 범위 마다 커밋한다.
+ * - rowsPerSecond 가 0 보다 크면 처리량이 그 이하가 되도록 청크 사이에 쉰다.
+ * - 청크마다 새 트랜잭션 (REQUIRES_NEW) 이므로 중간에 실패하면 이미 커밋된 청크는 되돌리지 않는다.
+ *   BulkProgress.lastId 다음부터 다시 실행하면 된다.
+ * - where 조건은 member 컬럼만 사용할 수 있다. (JPQL 벌크 연산은 join 불가)
+ * - 청크 트랜잭션이 호출한 쪽의 lock 을 기다리지 않도록 트랜잭션 밖에서 호출한다.
+ * - 청크마다 그 청크가 바꾸는 member 를 팀 별로 집계해서 팀 집계에 변경량으로 반영하고 (TeamStatisticsRepository.bulkXxx),
+ *   캐시, 검색 인덱스를 무효화한다. (MembersBulkChangedEvent) 커밋된 청크의 변경이 다음 청크까지 기다리지 않고 보인다.
+ *   (모든 팀 집계 row 를 잠그는 rebuild 는 하지 않는다)
+ */
+@Slf4j
+@Service
+public class MemberBulkService {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TeamStatisticsRepository teamStatisticsRepository;
+    private final int chunkSize;
+    private final double rowsPerSecond;
+
+    public MemberBulkService(EntityManager em, JPAQueryFactory queryFactory,
+        PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+        TeamStatisticsRepository teamStatisticsRepository,
+        @Value("${member.bulk.chunk-size:1000}") int chunkSize,
+        @Value("${member.bulk.rows-per-second:0}") double rowsPerSecond) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.teamStatisticsRepository = teamStatisticsRepository;
+        this.chunkSize = chunkSize;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * ex) update(QMember.member.age.lt(28), clause -> clause.set(QMember.member.username, "비회원"), progress -> {})
+     * username_lower 는 DB 가 계산하는 컬럼이므로 username 만 바꾸면 된다.
+     * 바뀌는 값을 알 수 없으므로 청크의 팀들은 커밋 직전에 그 팀만 다시 집계한다.
+     */
+    public BulkProgress update(Predicate where, Consumer<JPAUpdateClause> assignments,
+        Consumer<BulkProgress> listener) {
+        return execute(where, (chunk, range) -> {
+            // update 로 team 이 바뀔 수 있으므로 전후 모두 (update 후에는 where 가 맞지 않을 수 있어 청크 전체)
+            teamStatisticsRepository.bulkChanging(range);
+            JPAUpdateClause update = queryFactory.update(QMember.member).where(range);
+            assignments.accept(update);
+            long affected = update.execute();
+            teamStatisticsRepository.bulkChanging(chunk);
+            return affected;
+        }, listener);
+    }
+
+    public BulkProgress agePlus(Predicate where, int amount, Consumer<BulkProgress> listener) {
+        return execute(where, (chunk, range) -> {
+            teamStatisticsRepository.bulkAgesAdding(range, amount);
+            return queryFactory.update(QMember.member)
+                .where(range)
+                .set(QMember.member.age, QMember.member.age.add(amount))
+                .execute();
+        }, listener);
+    }
+
+    public BulkProgress delete(Predicate where, Consumer<BulkProgress> listener) {
+        return execute(where, (chunk, range) -> {
+            teamStatisticsRepository.bulkRemoving(range);
+            return queryFactory.delete(QMember.member).where(range).execute();
+        }, listener);
+    }
+
+    private BulkProgress execute(Predicate where, ChunkMutation mutation, Consumer<BulkProgress> listener) {
+        long start = System.nanoTime();
+        int chunks = 0;
+        long affectedRows = 0;
+        Long lastId = null;
+
+        try {
+            while (true) {
+                Long fromId = lastId;
+                List<Long> ids = queryFactory
+                    .select(QMember.member.id)
+                    .from(QMember.member)
+                    .where(where, fromId == null ? null : QMember.member.id.gt(fromId))
+                    .orderBy(QMember.member.id.asc())
+                    .limit(chunkSize)
+                    .fetch();
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                Long firstId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+                Long affected = chunkTransaction.execute(status -> {
+                    BooleanExpression chunk = QMember.member.id.between(firstId, toId);
+                    // 팀 별 변경량을 집계한 row 와 실제로 바뀌는 row 가 같도록 청크의 row 를 먼저 잠근다.
+                    // (id 범위 + 원래 조건: 범위 안에서 그 사이에 조건을 만족하게 된 row 도 함께 처리된다)
+                    queryFactory
+                        .select(QMember.member.id)
+                        .from(QMember.member)
+                        .where(chunk)
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .fetch();
+                    long count = mutation.execute(chunk, chunk.and(where));
+                    // 청크 트랜잭션 안에서 발행한다. 캐시는 커밋 후에 한번 더 무효화된다.
+                    eventPublisher.publishEvent(new MembersBulkChangedEvent(count));
+                    return count;
+                });
+
+                chunks++;
+                affectedRows += affected == null ? 0 : affected;
+                lastId = toId;
+                listener.accept(new BulkProgress(chunks, affectedRows, lastId, elapsedMillis(start), false));
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                throttle(start, affectedRows);
+            }
+        } finally {
+            // 청크는 다른 영속성 컨텍스트에서 실행되었으므로 현재 컨텍스트의 member 는 오래된 값이다.
+            em.clear();
+        }
+
+        BulkProgress progress = new BulkProgress(chunks, affectedRows, lastId, elapsedMillis(start), true);
+        listener.accept(progress);
+        log.info("member bulk mutation done: {}", progress);
+        return progress;
+    }
+
+    private void throttle(long start, long affectedRows) {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = (long) (affectedRows / rowsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        long sleepNanos = expectedNanos - (System.nanoTime() - start);
+        if (sleepNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("member bulk mutation interrupted", e);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * 청크 하나의 벌크 연산, 청크 트랜잭션 안에서 실행하고 바뀐 row 수를 돌려준다.
+     * chunk: 청크의 id 범위, range: 청크의 id 범위 + 원래 조건
+     */
+    private interface ChunkMutation {
+
+        long execute(Predicate chunk, Predicate range);
+    }
+}
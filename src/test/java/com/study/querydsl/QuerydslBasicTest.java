@@ -22,7 +22,10 @@ import com.study.querydsl.dto.UserDto;
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.QMember;
 import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.ColumnFetches;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceUnit;
@@ -595,6 +598,33 @@ class QuerydslBasicTest {
         }
     }
 
+    /**
+     * id 목록, id -> 값 처럼 컬럼 한두개만 필요하면 Tuple 없이 long[], Map 으로 바로 받을 수 있다. (ColumnFetches)
+     */
+    @Test
+    void column_fetch_projection() {
+        long[] ids = ColumnFetches.fetchLongs(queryFactory
+                .from(member)
+                .orderBy(member.id.asc()),
+            member.id);
+
+        Map<Long, Integer> ages = ColumnFetches.fetchMap(queryFactory
+                .from(member)
+                .orderBy(member.id.asc()),
+            member.id, member.age);
+
+        List<Tuple> tuples = queryFactory
+            .select(member.id, member.age)
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+
+        assertThat(ids).containsExactly(tuples.stream().mapToLong(tuple -> tuple.get(member.id)).toArray());
+        assertThat(ages.keySet()).containsExactlyElementsOf(
+            tuples.stream().map(tuple -> tuple.get(member.id)).collect(Collectors.toList()));
+        tuples.forEach(tuple -> assertThat(ages).containsEntry(tuple.get(member.id), tuple.get(member.age)));
+    }
+
     /**
      * 순수 JPA 에서 DTO를 조회할 때는 new 명령어를 사용해야 함. (DTO의 패키지 이름을 다 적어줘야함...)
      * 생성자 방식만 지원!
@@ -0,0 +1,125 @@
+package com.study.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.entity.Member;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * embedded H2 두 개 (rw_primary, rw_replica) 로 라우팅 확인
+ * replica 의 replica_lag 테이블 값을 복제 지연으로 사용한다.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1",
+    "member.datasource.replica.jdbc-url=jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1",
+    "member.datasource.replica.username=sa",
+    "member.datasource.replica-check.lag-query=select lag_millis from replica_lag",
+    "member.datasource.replica-check.max-lag-ms=1000",
+    "member.datasource.replica-check.interval-ms=600000"})
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    PrimaryReadWindow primaryReadWindow;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void before() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists replica_lag (lag_millis bigint)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag values (0)");
+        replicaLagMonitor.check();
+        primaryReadWindow.close();
+    }
+
+    @Test
+    void routingTest() {
+        assertThat(replicaLagMonitor.isAvailable()).isTrue();
+        assertThat(database(true)).isEqualToIgnoringCase("rw_replica");
+        assertThat(database(false)).isEqualToIgnoringCase("rw_primary");
+    }
+
+    @Test
+    void laggingReplicaTest() {
+        replica.update("update replica_lag set lag_millis = 5000");
+        replicaLagMonitor.check();
+
+        assertThat(replicaLagMonitor.isAvailable()).isFalse();
+        assertThat(replicaLagMonitor.getLagMillis()).isEqualTo(5000);
+        assertThat(database(true)).isEqualToIgnoringCase("rw_primary");
+
+        // 따라잡으면 다시 replica
+        replica.update("update replica_lag set lag_millis = 10");
+        replicaLagMonitor.check();
+
+        assertThat(database(true)).isEqualToIgnoringCase("rw_replica");
+    }
+
+    @Test
+    void readYourWritesTest() throws Exception {
+        // member 쓰기가 커밋되면 잠깐 동안 쓴 쪽 (스레드) 의 읽기는 primary
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("rwMember", 10)));
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(primaryReadWindow.isOpen()).isTrue();
+            assertThat(database(true)).isEqualToIgnoringCase("rw_primary");
+
+            // 다른 요청 (스레드) 의 일반 조회는 replica, 공유 캐시를 다시 채우는 조회만 primary
+            assertThat(otherThread.submit(() -> database(true)).get()).isEqualToIgnoringCase("rw_replica");
+            assertThat(otherThread.submit(() -> primaryReadWindow.refill(() -> database(true))).get())
+                .isEqualToIgnoringCase("rw_primary");
+
+            primaryReadWindow.close();
+            assertThat(database(true)).isEqualToIgnoringCase("rw_replica");
+            assertThat(primaryReadWindow.refill(() -> database(true))).isEqualToIgnoringCase("rw_replica");
+        } finally {
+            otherThread.shutdown();
+            transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username = 'rwMember'").executeUpdate());
+        }
+    }
+
+    @Test
+    void replicaCheckFailTest() {
+        replica.execute("drop table replica_lag");
+        replicaLagMonitor.check();
+
+        assertThat(replicaLagMonitor.isAvailable()).isFalse();
+        assertThat(database(true)).isEqualToIgnoringCase("rw_primary");
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+            (String) em.createNativeQuery("select database()").getSingleResult());
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.querydsl.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.MemberJpaRepository;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 임계값 0ms: 모든 SQL 이 slow query 로 기록된다.
+ */
+@SpringBootTest(properties = "member.slow-query.threshold-ms=0")
+@Transactional
+class SlowQueryLogTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
+    @Test
+    void slowQueryTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.flush();
+        slowQueryLog.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        // when
+        memberJpaRepository.search(condition);
+
+        // then
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertThat(recent).hasSize(1);
+
+        SlowQuery slowQuery = recent.get(0);
+        assertThat(slowQuery.getRepositoryMethod()).isEqualTo("MemberJpaRepository.search");
+        assertThat(slowQuery.getJpql()).contains("from Member member1");
+        assertThat(slowQuery.getSql()).contains("'teamA'");
+    }
+}
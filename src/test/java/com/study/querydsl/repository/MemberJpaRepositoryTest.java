@@ -1,16 +1,28 @@
 package com.study.querydsl.repository;
 
+import static com.study.querydsl.support.StatementCountAssertions.assertMaxStatements;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.study.querydsl.dto.MemberSearchCondition;
 import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.UsernameMatch;
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.Team;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -26,6 +38,15 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSearchTemplates searchTemplates;
+
     @Test
     void basicTest() {
         Member member = new Member("member1", 10);
@@ -143,4 +164,296 @@ class MemberJpaRepositoryTest {
         // then
         assertThat(result).extracting("username").containsExactly("member3", "member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchStreamTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        // when
+        List<MemberTeamDto> result;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition)) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(result).extracting("username").containsExactly("member3", "member4");
+    }
+
+    @Test
+    void saveAllTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Long teamId = teamA.getId();
+
+        // when
+        long saved = memberJpaRepository.saveAll(() -> IntStream.range(0, 2_500)
+            .mapToObj(i -> new Member("member" + i, i, em.getReference(Team.class, teamId)))
+            .iterator());
+
+        // then
+        assertThat(saved).isEqualTo(2_500);
+        assertThat(memberJpaRepository.findAll()).hasSize(2_500);
+        // 테스트 트랜잭션에 참여했으므로 저장한 member 만 detach, 호출한 쪽의 team 은 그대로 영속 상태
+        assertThat(em.contains(teamA)).isTrue();
+    }
+
+    @Test
+    void usernameMatchTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("Alice", 10, teamA));
+        em.persist(new Member("alice_2", 20, teamA));
+        em.persist(new Member("ALICE", 30, teamA));
+        em.persist(new Member("bob", 40, teamA));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setUsername("alice");
+
+        // EXACT
+        assertThat(memberJpaRepository.search(condition)).isEmpty();
+
+        // PREFIX: 대소문자 구분, '_' 는 와일드카드가 아니다.
+        condition.setUsernameMatch(UsernameMatch.PREFIX);
+        assertThat(memberJpaRepository.search(condition)).extracting("username").containsExactly("alice_2");
+        condition.setUsername("alice_");
+        assertThat(memberJpaRepository.search(condition)).extracting("username")
+            .containsExactly("alice_2");
+
+        // IGNORE_CASE
+        condition.setUsername("aLiCe");
+        condition.setUsernameMatch(UsernameMatch.IGNORE_CASE);
+        assertThat(memberJpaRepository.search(condition)).extracting("username")
+            .containsExactlyInAnyOrder("Alice", "ALICE");
+
+        // username 을 바꾸면 username_lower 도 바뀐다.
+        Member bob = memberJpaRepository.findAll().stream()
+            .filter(m -> m.getUsername().equals("bob"))
+            .findFirst().get();
+        bob.setUsername("ALIce");
+        em.flush();
+
+        assertThat(memberJpaRepository.search(condition)).extracting("username")
+            .containsExactlyInAnyOrder("Alice", "ALICE", "ALIce");
+
+        // JPQL 벌크 update 로 바꿔도 DB 가 username_lower 를 다시 계산한다.
+        em.createQuery("update Member m set m.username = 'aliCE' where m.username = 'alice_2'").executeUpdate();
+        em.clear();
+
+        assertThat(memberJpaRepository.search(condition)).extracting("username")
+            .containsExactlyInAnyOrder("Alice", "ALICE", "ALIce", "aliCE");
+    }
+
+    @Test
+    void searchWithTemplateTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("Alice", 10, teamA));
+        em.persist(new Member("alice_2", 20, teamA));
+        em.persist(new Member("alice%3", 30, teamB));
+        em.persist(new Member("ALICE", 40, teamB));
+        em.persist(new Member("bob", 50));
+        em.flush();
+        em.clear();
+
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        conditions.add(new MemberSearchCondition());
+        for (UsernameMatch usernameMatch : UsernameMatch.values()) {
+            for (String username : new String[]{"alice", "alice_", "alice%", "aLiCe"}) {
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setUsername(username);
+                condition.setUsernameMatch(usernameMatch);
+                conditions.add(condition);
+            }
+        }
+        MemberSearchCondition containsText = new MemberSearchCondition();
+        containsText.setContainsText("LIcE_");
+        conditions.add(containsText);
+        MemberSearchCondition teamAndAge = new MemberSearchCondition();
+        teamAndAge.setTeamName("teamA");
+        teamAndAge.setAgeGoe(15);
+        teamAndAge.setAgeLoe(35);
+        conditions.add(teamAndAge);
+
+        // 같은 조건 조합이면 값이 달라도 같은 JPQL 을 재사용하고 결과는 Querydsl 경로와 같다.
+        for (MemberSearchCondition condition : conditions) {
+            assertThat(memberJpaRepository.searchWithTemplate(condition))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(memberJpaRepository.search(condition));
+            assertThat(memberRepository.searchPageWithTemplate(condition, PageRequest.of(0, 2)).getTotalElements())
+                .isEqualTo(memberJpaRepository.search(condition).size());
+        }
+
+        // count 는 team 조건이 없으면 join 하지 않는다.
+        assertThat(searchTemplates.countJpql(containsText)).doesNotContain("join");
+        assertThat(searchTemplates.countJpql(MemberPredicates.normalize(teamAndAge))).contains("join");
+    }
+
+    @Test
+    void findByIdsTest() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            Member member = new Member("member" + i, i);
+            memberJpaRepository.save(member);
+            if (i % 2 == 0) {
+                ids.add(member.getId());
+            }
+        }
+        ids.add(ids.get(0)); // 중복 id
+
+        // when
+        List<Member> result = memberJpaRepository.findByIds(ids);
+
+        // then
+        assertThat(result).hasSize(600);
+        assertThat(result).extracting("age").allMatch(age -> (int) age % 2 == 0);
+    }
+
+    @Test
+    void statementBudgetTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamB));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Member> members = assertMaxStatements(1, () -> memberJpaRepository.findAll());
+        em.clear();
+
+        // then, member 를 하나씩 조회 (N+1)
+        assertThatThrownBy(() -> assertMaxStatements(1,
+            () -> members.forEach(m -> memberJpaRepository.findById(m.getId()))))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("possible N+1");
+    }
+
+    @Test
+    void batchFetchTest() {
+        // given
+        List<Team> teams = IntStream.range(0, 10)
+            .mapToObj(i -> new Team("batchTeam" + i))
+            .collect(Collectors.toList());
+        teams.forEach(em::persist);
+        for (int i = 0; i < 1000; i++) {
+            em.persist(new Member("batchMember" + i, i % 100, teams.get(i % teams.size())));
+        }
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // entity graph: member + team 을 한번에
+        List<Member> withTeams = assertMaxStatements(1, () -> {
+            List<Member> result = memberJpaRepository.findAllWithTeams(condition);
+            result.forEach(m -> m.getTeam().getName());
+            return result;
+        });
+        assertThat(withTeams).hasSizeGreaterThanOrEqualTo(1000);
+        em.clear();
+
+        // batch fetch: member 조회 1 + team 프록시 초기화 (team 10개를 in 절 하나로) 1
+        assertMaxStatements(2, () -> em
+            .createQuery("select m from Member m where m.username like 'batchMember%'", Member.class)
+            .getResultList()
+            .forEach(m -> m.getTeam().getName()));
+        em.clear();
+
+        // batch fetch: team 조회 1 + members 컬렉션 초기화 (team 10개를 in 절 하나로) 1
+        assertMaxStatements(2, () -> em
+            .createQuery("select t from Team t where t.name like 'batchTeam%'", Team.class)
+            .getResultList()
+            .forEach(t -> assertThat(t.getMembers()).hasSize(100)));
+    }
+
+    @Test
+    void repositoryMetricsTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+
+        // when
+        memberJpaRepository.search(condition);
+
+        // then
+        Timer timer = meterRegistry.find("repository.invocations")
+            .tag("class", "MemberJpaRepository")
+            .tag("method", "search")
+            .tag("condition", "team")
+            .timer();
+        DistributionSummary rows = meterRegistry.find("repository.rows")
+            .tag("method", "search")
+            .tag("condition", "team")
+            .summary();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        assertThat(rows).isNotNull();
+        assertThat(rows.max()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void columnFetchTest() {
+        Team team = new Team("fetchTeam");
+        em.persist(team);
+        List<Member> members = IntStream.rangeClosed(1, 100)
+            .mapToObj(i -> new Member("fetchMember" + i, i, team))
+            .collect(Collectors.toList());
+        members.forEach(em::persist);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("fetchTeam");
+        condition.setAgeGoe(50);
+
+        long[] ids = memberJpaRepository.findIds(condition);
+        assertThat(ids).containsExactly(members.subList(49, 100).stream()
+            .mapToLong(Member::getId)
+            .toArray());
+
+        Map<Long, String> usernames = memberJpaRepository.findUsernamesById(condition);
+        assertThat(usernames).hasSize(51);
+        assertThat(usernames.keySet()).containsExactlyElementsOf(
+            members.subList(49, 100).stream().map(Member::getId).collect(Collectors.toList()));
+        assertThat(usernames).containsEntry(members.get(49).getId(), "fetchMember50");
+
+        condition.setAgeGoe(1000);
+        assertThat(memberJpaRepository.findIds(condition)).isEmpty();
+        assertThat(memberJpaRepository.findUsernamesById(condition)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * searchPageAsync 의 count 는 다른 트랜잭션에서 실행되므로, 커밋된 데이터로 확인한다.
+ */
+@SpringBootTest
+class MemberRepositoryAsyncTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberCountCache countCache;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Team team;
+
+    @BeforeEach
+    void before() {
+        team = new Team("asyncTeam");
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(team);
+            for (int i = 1; i <= 5; i++) {
+                em.persist(new Member("asyncMember" + i, i * 10, team));
+            }
+        });
+        countCache.invalidateAll();
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id = :teamId")
+                .setParameter("teamId", team.getId())
+                .executeUpdate();
+            em.remove(em.find(Team.class, team.getId()));
+        });
+        countCache.invalidateAll();
+    }
+
+    @Test
+    void searchPageAsyncTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("asyncTeam");
+
+        // count 가 필요한 페이지
+        Page<MemberTeamDto> first = memberRepository.searchPageAsync(condition, PageRequest.of(0, 2));
+
+        assertThat(first.getContent()).extracting("username").containsExactly("asyncMember1", "asyncMember2");
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+
+        // 마지막 페이지, content 만으로 전체 개수를 알 수 있다. (count 취소)
+        Page<MemberTeamDto> last = memberRepository.searchPageAsync(condition, PageRequest.of(2, 2));
+
+        assertThat(last.getContent()).extracting("username").containsExactly("asyncMember5");
+        assertThat(last.getTotalElements()).isEqualTo(5);
+    }
+}
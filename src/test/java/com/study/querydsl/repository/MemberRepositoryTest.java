@@ -1,9 +1,14 @@
 package com.study.querydsl.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.study.querydsl.dto.CursorSlice;
+import com.study.querydsl.dto.EstimatedPage;
 import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSliceSort;
 import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.UsernameMatch;
 import com.study.querydsl.entity.Member;
 import com.study.querydsl.entity.QMember;
 import com.study.querydsl.entity.Team;
@@ -29,6 +34,21 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberCountCache countCache;
+
+    @Autowired
+    MemberRepositoryImpl memberRepositoryImpl;
+
+    @Autowired
+    MemberStatistics memberStatistics;
+
+    @Autowired
+    TeamStatisticsRepository teamStatisticsRepository;
+
     @Test
     void basicTest() {
         Member member = new Member("member1", 10);
@@ -104,6 +124,183 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    void searchPageComplexCountCacheTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        for (int i = 1; i <= 4; i++) {
+            memberJpaRepository.save(new Member("member" + i, i * 10, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        long hit = countCache.getHitCount();
+        long miss = countCache.getMissCount();
+
+        // when
+        Page<MemberTeamDto> first = memberRepository.searchPageComplex(condition, pageRequest);
+        condition.setUsername("");  // 빈 문자열은 null 과 같은 조건으로 본다.
+        Page<MemberTeamDto> second = memberRepository.searchPageComplex(condition, pageRequest);
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(second.getTotalElements()).isEqualTo(4);
+        assertThat(countCache.getMissCount() - miss).isEqualTo(1);
+        assertThat(countCache.getHitCount() - hit).isEqualTo(1);
+
+        // 저장 시 캐시 무효화
+        memberJpaRepository.save(new Member("member5", 50, teamA));
+        Page<MemberTeamDto> third = memberRepository.searchPageComplex(condition, pageRequest);
+        assertThat(third.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void countQueryWithoutTeamConditionTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setAgeGoe(10);
+
+        String jpql = memberRepositoryImpl.countQuery(condition).toString();
+
+        assertThat(jpql).startsWith("select member1.id");
+        assertThat(jpql).doesNotContain("join");
+        assertThat(jpql).doesNotContain("team");
+    }
+
+    @Test
+    void countQueryWithTeamConditionTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        String jpql = memberRepositoryImpl.countQuery(condition).toString();
+
+        assertThat(jpql).contains("left join member1.team as team");
+        assertThat(jpql).contains("team.name = ?1");
+    }
+
+    @Test
+    void searchPageEstimatedTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+        }
+        // 팀 집계는 커밋 직전에 반영되므로 (rollback 테스트) 직접 다시 계산한다.
+        teamStatisticsRepository.rebuild();
+        memberStatistics.refresh();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(20);
+
+        // when
+        EstimatedPage<MemberTeamDto> first = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 2));
+        EstimatedPage<MemberTeamDto> last = memberRepository.searchPageEstimated(condition, PageRequest.of(1, 3));
+
+        // then, teamA 이면서 20살 이상: 20, 40, 60, 80
+        // (추정: 0 ~ 80 살 5명 중 20 ~ 80 살 -> 5 * 61 / 81 = 3.8)
+        assertThat(first.isExact()).isFalse();
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(last.isExact()).isTrue();
+        assertThat(last.getTotalElements()).isEqualTo(4);
+
+        // prefix, 부분 문자열은 추정할 수 없으므로 count 쿼리
+        condition.setUsername("member");
+        condition.setUsernameMatch(UsernameMatch.PREFIX);
+        EstimatedPage<MemberTeamDto> prefix = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 2));
+        assertThat(prefix.isExact()).isTrue();
+        assertThat(prefix.getTotalElements()).isEqualTo(4);
+
+        condition.setUsername(null);
+        condition.setContainsText("ember");
+        EstimatedPage<MemberTeamDto> contains = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 2));
+        assertThat(contains.isExact()).isTrue();
+        assertThat(contains.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void searchSliceTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // when
+        CursorSlice<MemberTeamDto> first = memberRepository.searchSlice(condition, null, 3);
+        CursorSlice<MemberTeamDto> second = memberRepository
+            .searchSlice(condition, MemberCursor.decode(first.getNextCursor(), MemberSliceSort.ID), 3);
+
+        // then
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getContent()).extracting("username").containsExactly("member4");
+    }
+
+    @Test
+    void searchSliceByAgeTest() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 30, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 20, teamA);
+        Member member4 = new Member("member4", 10, teamA);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // when
+        CursorSlice<MemberTeamDto> first = memberRepository.searchSlice(condition, MemberSliceSort.AGE, null, 2);
+        CursorSlice<MemberTeamDto> second = memberRepository
+            .searchSlice(condition, MemberSliceSort.AGE, MemberCursor.decode(first.getNextCursor(), MemberSliceSort.AGE), 2);
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member4", "member2");
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member1");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void invalidCursorTest() {
+        // given
+        String ageCursor = MemberCursor.of(MemberSliceSort.AGE, new MemberTeamDto(1L, "member1", 10, null, null))
+            .encode();
+
+        // when, then
+        assertThatThrownBy(() -> MemberCursor.decode("not a cursor", MemberSliceSort.ID))
+            .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> MemberCursor.decode(ageCursor, MemberSliceSort.ID))
+            .isInstanceOf(InvalidCursorException.class);
+        assertThat(MemberCursor.decode(ageCursor, MemberSliceSort.AGE).getMemberId()).isEqualTo(1L);
+    }
+
     @Test
     void querydslPredicateExecutorTest() {
         // given
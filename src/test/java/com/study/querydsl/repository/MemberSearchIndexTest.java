@@ -0,0 +1,175 @@
+package com.study.querydsl.repository;
+
+import static com.study.querydsl.support.StatementCountAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 인덱스는 커밋된 변경만 반영하므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest(properties = "member.search-index.enabled=true")
+class MemberSearchIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSearchIndex memberSearchIndex;
+
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Team teamA;
+    Team teamB;
+    Member member1;
+    Member member2;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("indexTeamA");
+        teamB = new Team("indexTeamB");
+        member1 = new Member("indexMember1", 10, teamA);
+        member2 = new Member("indexMember2", 20, teamA);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(new Member("indexMember3", 30, teamB));
+            em.persist(new Member("indexMember4", 40, teamB));
+            em.persist(new Member("indexMember5", 40));
+        });
+        memberSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'indexMember%'").executeUpdate();
+            em.remove(em.find(Team.class, teamA.getId()));
+            em.remove(em.find(Team.class, teamB.getId()));
+        });
+        memberSearchIndex.markStale();
+    }
+
+    @Test
+    void searchTest() {
+        // username, teamName, ageGoe, ageLoe 의 16가지 조합
+        for (int mask = 0; mask < 16; mask++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            if ((mask & 1) != 0) {
+                condition.setUsername("indexMember2");
+            }
+            if ((mask & 2) != 0) {
+                condition.setTeamName("indexTeamA");
+            }
+            if ((mask & 4) != 0) {
+                condition.setAgeGoe(15);
+            }
+            if ((mask & 8) != 0) {
+                condition.setAgeLoe(35);
+            }
+
+            assertSameAsDatabase(condition);
+        }
+    }
+
+    @Test
+    void syncTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("indexMember6", 50, em.find(Team.class, teamA.getId())));
+            em.find(Member.class, member1.getId()).changeTeam(em.find(Team.class, teamB.getId()));
+            em.find(Member.class, member2.getId()).setAge(25);
+            em.find(Team.class, teamB.getId()).setName("indexTeamC");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            em.remove(em.find(Member.class, member2.getId()));
+        });
+
+        assertThat(memberSearchIndex.isStale()).isFalse();
+
+        MemberSearchCondition teamACondition = new MemberSearchCondition();
+        teamACondition.setTeamName("indexTeamA");
+        assertThat(memberSearchIndex.search(teamACondition)).extracting("username")
+            .containsExactly("indexMember6");
+
+        MemberSearchCondition teamCCondition = new MemberSearchCondition();
+        teamCCondition.setTeamName("indexTeamC");
+        assertThat(memberSearchIndex.search(teamCCondition)).extracting("username")
+            .containsExactly("indexMember1", "indexMember3", "indexMember4");
+        assertSameAsDatabase(teamCCondition);
+    }
+
+    @Test
+    void rollbackTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("indexMember6", 50, em.find(Team.class, teamA.getId())));
+            status.setRollbackOnly();
+        });
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexTeamA");
+        assertThat(memberSearchIndex.search(condition)).extracting("username")
+            .containsExactly("indexMember1", "indexMember2");
+    }
+
+    @Test
+    void repositorySearchTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexTeamA");
+
+        // 인덱스가 로딩되어 있으면 MemberJpaRepository.search 는 SQL 을 실행하지 않는다.
+        List<MemberTeamDto> result = assertMaxStatements(0, () -> memberJpaRepository.search(condition));
+        assertThat(result).extracting("username").containsExactly("indexMember1", "indexMember2");
+
+        // 쓰기 트랜잭션 안에서는 커밋 전의 자신의 변경이 보이도록 DB 에서 조회한다.
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("indexMember6", 50, em.find(Team.class, teamA.getId())));
+            assertThat(memberJpaRepository.search(condition)).extracting("username")
+                .containsExactlyInAnyOrder("indexMember1", "indexMember2", "indexMember6");
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void staleTest() {
+        memberSearchIndex.markStale();
+        assertThat(memberSearchIndex.isStale()).isTrue();
+
+        // stale 이면 DB 에서 조회한다.
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexTeamA");
+        assertThat(memberSearchIndex.search(condition)).extracting("username")
+            .containsExactlyInAnyOrder("indexMember1", "indexMember2");
+
+        memberSearchIndex.rebuild();
+        assertThat(memberSearchIndex.isStale()).isFalse();
+    }
+
+    private void assertSameAsDatabase(MemberSearchCondition condition) {
+        List<MemberTeamDto> result = memberSearchIndex.search(condition);
+        assertThat(memberSearchIndex.isStale()).isFalse();
+        assertThat(result).containsExactlyInAnyOrderElementsOf(memberQueryRepository.search(condition));
+    }
+}
@@ -0,0 +1,159 @@
+package com.study.querydsl.repository;
+
+import static com.study.querydsl.support.StatementCountAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberSearchKey;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.UsernameMatch;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * memo 는 쓰기 트랜잭션 안에서는 사용하지 않으므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest
+class MemberSearchMemoTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberSearchMemo searchMemo;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Team team;
+
+    @BeforeEach
+    void before() {
+        team = new Team("memoTeam");
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(team);
+            em.persist(new Member("memoMember1", 10, team));
+            em.persist(new Member("memoMember2", 20, team));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        RequestContextHolder.resetRequestAttributes();
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id = :teamId")
+                .setParameter("teamId", team.getId())
+                .executeUpdate();
+            em.remove(em.find(Team.class, team.getId()));
+        });
+    }
+
+    @Test
+    void requestScopeTest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        List<MemberTeamDto> first = memberJpaRepository.search(condition("memoTeam"));
+        assertThat(first).extracting("username").containsExactlyInAnyOrder("memoMember1", "memoMember2");
+
+        // 정규화하면 같은 조건 (앞뒤 공백, 빈 문자열) -> SQL 없이 같은 결과
+        MemberSearchCondition same = condition(" memoTeam ");
+        same.setUsername("");
+        List<MemberTeamDto> second = assertMaxStatements(0, () -> memberJpaRepository.search(same));
+        assertThat(second).isEqualTo(first);
+
+        // 기억해 둔 결과는 복사해서 돌려주므로 호출자가 수정해도 다른 호출자에게 보이지 않는다.
+        second.get(0).setUsername("changed");
+        assertThat(memberJpaRepository.search(condition("memoTeam"))).extracting("username")
+            .containsExactlyInAnyOrder("memoMember1", "memoMember2");
+
+        // 쓰기가 커밋되면 다시 조회한다.
+        transactionTemplate.executeWithoutResult(status ->
+            em.persist(new Member("memoMember3", 30, em.find(Team.class, team.getId()))));
+        assertThat(memberJpaRepository.search(condition("memoTeam"))).extracting("username")
+            .containsExactlyInAnyOrder("memoMember1", "memoMember2", "memoMember3");
+
+        // 요청이 끝나면 버린다.
+        RequestContextHolder.resetRequestAttributes();
+        long misses = searchMemo.getMissCount();
+        memberJpaRepository.search(condition("memoTeam"));
+        assertThat(searchMemo.getMissCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void readOnlyTransactionScopeTest() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            List<MemberTeamDto> first = memberJpaRepository.search(condition("memoTeam"));
+            List<MemberTeamDto> second =
+                assertMaxStatements(0, () -> memberJpaRepository.search(condition("memoTeam")));
+            assertThat(second).isEqualTo(first);
+        });
+    }
+
+    @Test
+    void readWriteTransactionTest() {
+        // 쓰기 트랜잭션에서는 아직 커밋하지 않은 변경도 결과에 보여야 한다.
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(memberJpaRepository.search(condition("memoTeam"))).hasSize(2);
+            em.persist(new Member("memoMember3", 30, em.find(Team.class, team.getId())));
+            assertThat(memberJpaRepository.search(condition("memoTeam"))).hasSize(3);
+        });
+    }
+
+    @Test
+    void bulkChangedTest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(memberJpaRepository.search(condition("memoTeam"))).extracting("age")
+            .containsExactlyInAnyOrder(10, 20);
+
+        // 벌크 연산은 엔티티 이벤트가 없으므로 MembersBulkChangedEvent 로 무효화된다.
+        transactionTemplate.executeWithoutResult(status -> memberJpaRepository.bulkAgePlus(1));
+        assertThat(memberJpaRepository.search(condition("memoTeam"))).extracting("age")
+            .containsExactlyInAnyOrder(11, 21);
+    }
+
+    @Test
+    void keyTest() {
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setUsername(" ");
+        blank.setUsernameMatch(UsernameMatch.PREFIX);
+        blank.setTeamName("");
+        assertThat(MemberSearchKey.of(blank)).isEqualTo(MemberSearchKey.of(new MemberSearchCondition()));
+
+        MemberSearchCondition prefix = new MemberSearchCondition();
+        prefix.setUsername(" member ");
+        prefix.setUsernameMatch(UsernameMatch.PREFIX);
+        MemberSearchKey key = MemberSearchKey.of(prefix);
+        assertThat(key.getUsername()).isEqualTo("member");
+        assertThat(key.toCondition().getUsernameMatch()).isEqualTo(UsernameMatch.PREFIX);
+        assertThat(MemberSearchKey.of(key.toCondition())).isEqualTo(key);
+    }
+
+    private MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+}
@@ -0,0 +1,98 @@
+package com.study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.UsernameMatch;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.monitoring.SlowQuery;
+import com.study.querydsl.monitoring.SlowQueryLog;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * MemberQueryRepository.search 가 실행한 SQL 을 (SlowQueryLog, 임계값 0ms) H2 EXPLAIN 으로 확인한다.
+ * username, teamName, ageGoe, ageLoe 조합 16가지 (username 비교 방식 별로) 중 조건이 하나라도 있으면
+ * tableScan 이 없어야 한다.
+ * (조건이 없으면 전체를 읽어야 하므로 제외)
+ */
+@SpringBootTest(properties = "member.slow-query.threshold-ms=0")
+@Transactional
+class MemberSearchPlanTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void before() {
+        for (int t = 0; t < 4; t++) {
+            Team team = new Team("planTeam" + t);
+            em.persist(team);
+            for (int i = 0; i < 50; i++) {
+                em.persist(new Member("planMember" + t + "_" + i, i, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void searchPlanTest() {
+        for (UsernameMatch match : UsernameMatch.values()) {
+            searchPlanTest(match);
+        }
+    }
+
+    private void searchPlanTest(UsernameMatch match) {
+        for (int mask = 1; mask < 16; mask++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUsernameMatch(match);
+            if ((mask & 1) != 0) {
+                condition.setUsername(match == UsernameMatch.PREFIX ? "planMember1_2" : "planMember1_20");
+            }
+            if ((mask & 2) != 0) {
+                condition.setTeamName("planTeam1");
+            }
+            if ((mask & 4) != 0) {
+                condition.setAgeGoe(10);
+            }
+            if ((mask & 8) != 0) {
+                condition.setAgeLoe(30);
+            }
+
+            String plan = explain(condition);
+
+            assertThat(plan).as("%s -> %s", condition, plan).doesNotContain("tableScan");
+        }
+    }
+
+    private String explain(MemberSearchCondition condition) {
+        slowQueryLog.clear();
+        memberQueryRepository.search(condition);
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertThat(recent).hasSize(1);
+
+        // 바인딩된 값이 들어간 SQL, 앞의 JPQL 주석은 제거
+        String sql = recent.get(0).getSql().replaceFirst("(?s)^/\\*.*?\\*/", "").trim();
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
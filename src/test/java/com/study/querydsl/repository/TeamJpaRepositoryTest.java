@@ -0,0 +1,73 @@
+package com.study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.entity.Team;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 2차 캐시는 커밋된 데이터만 캐시하므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest
+class TeamJpaRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    Team team;
+
+    @BeforeEach
+    void before() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        team = new Team("cachedTeam");
+        transactionTemplate.executeWithoutResult(status -> teamJpaRepository.save(team));
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Team.class, team.getId())));
+        teamJpaRepository.evictCache();
+    }
+
+    @Test
+    void secondLevelCacheTest() {
+        long hit = statistics.getSecondLevelCacheHitCount();
+
+        Team findTeam = transactionTemplate.execute(status -> teamJpaRepository.findById(team.getId()).get());
+
+        assertThat(findTeam.getName()).isEqualTo("cachedTeam");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hit);
+    }
+
+    @Test
+    void queryCacheTest() {
+        transactionTemplate.executeWithoutResult(status -> teamJpaRepository.findByName("cachedTeam"));
+        long hit = statistics.getQueryCacheHitCount();
+
+        Team findTeam = transactionTemplate.execute(status -> teamJpaRepository.findByName("cachedTeam").get());
+
+        assertThat(findTeam.getId()).isEqualTo(team.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(hit);
+    }
+}
@@ -0,0 +1,169 @@
+package com.study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.TeamStatisticsDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.entity.TeamStatistics;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 집계는 커밋 직전에 반영되므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest
+class TeamStatisticsRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatisticsRepository teamStatisticsRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Team teamA;
+    Team teamB;
+    Member member1;
+    Member member2;
+    Member member3;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("statTeamA");
+        teamB = new Team("statTeamB");
+        member1 = new Member("statMember1", 10, teamA);
+        member2 = new Member("statMember2", 20, teamA);
+        member3 = new Member("statMember3", 30, teamB);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id in :teamIds")
+                .setParameter("teamIds", List.of(teamA.getId(), teamB.getId()))
+                .executeUpdate();
+            for (Team team : List.of(teamA, teamB)) {
+                Team findTeam = em.find(Team.class, team.getId());
+                if (findTeam != null) {
+                    em.remove(findTeam);
+                }
+            }
+        });
+    }
+
+    @Test
+    void insertTest() {
+        TeamStatisticsDto statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+        assertThat(statA.getMemberCount()).isEqualTo(2);
+        assertThat(statA.getAgeSum()).isEqualTo(30);
+        assertThat(statA.getMinAge()).isEqualTo(10);
+        assertThat(statA.getMaxAge()).isEqualTo(20);
+        assertThat(statA.getAgeAvg()).isEqualTo(15.0);
+
+        transactionTemplate.executeWithoutResult(status ->
+            em.persist(new Member("statMember4", 5, em.find(Team.class, teamA.getId()))));
+
+        statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+        assertThat(statA.getMemberCount()).isEqualTo(3);
+        assertThat(statA.getAgeSum()).isEqualTo(35);
+        assertThat(statA.getMinAge()).isEqualTo(5);
+        assertThat(statA.getMaxAge()).isEqualTo(20);
+    }
+
+    @Test
+    void updateTest() {
+        // 팀 이동: teamA 의 max 가 빠지고 teamB 에 더해진다.
+        transactionTemplate.executeWithoutResult(status -> {
+            Member findMember = em.find(Member.class, member2.getId());
+            findMember.changeTeam(em.find(Team.class, teamB.getId()));
+        });
+
+        TeamStatisticsDto statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+        TeamStatisticsDto statB = teamStatisticsRepository.findByTeamName("statTeamB").get();
+        assertThat(statA.getMemberCount()).isEqualTo(1);
+        assertThat(statA.getAgeSum()).isEqualTo(10);
+        assertThat(statA.getMaxAge()).isEqualTo(10);
+        assertThat(statB.getMemberCount()).isEqualTo(2);
+        assertThat(statB.getAgeSum()).isEqualTo(50);
+        assertThat(statB.getMinAge()).isEqualTo(20);
+
+        // 나이 변경
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member3.getId()).setAge(40));
+
+        statB = teamStatisticsRepository.findByTeamName("statTeamB").get();
+        assertThat(statB.getAgeSum()).isEqualTo(60);
+        assertThat(statB.getMaxAge()).isEqualTo(40);
+    }
+
+    @Test
+    void deleteTest() {
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, member1.getId())));
+
+        TeamStatisticsDto statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+        assertThat(statA.getMemberCount()).isEqualTo(1);
+        assertThat(statA.getAgeSum()).isEqualTo(20);
+        assertThat(statA.getMinAge()).isEqualTo(20);
+
+        // 팀이 삭제되면 집계도 삭제된다.
+        transactionTemplate.executeWithoutResult(status -> {
+            em.remove(em.find(Member.class, member2.getId()));
+            em.remove(em.find(Team.class, teamA.getId()));
+        });
+
+        assertThat(transactionTemplate.execute(status -> em.find(TeamStatistics.class, teamA.getId()))).isNull();
+    }
+
+    @Test
+    void bulkInSameTransactionTest() {
+        // 벌크 연산 전에 같은 트랜잭션에서 추가한 member 도 벌크 연산의 변경량에 포함된다.
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("statMember4", 5, em.find(Team.class, teamA.getId())));
+            memberJpaRepository.bulkAgePlus(1);
+        });
+
+        try {
+            TeamStatisticsDto statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+            assertThat(statA.getMemberCount()).isEqualTo(3);
+            assertThat(statA.getAgeSum()).isEqualTo(38);
+            assertThat(statA.getMinAge()).isEqualTo(6);
+            assertThat(statA.getMaxAge()).isEqualTo(21);
+        } finally {
+            // 다른 테스트 데이터의 나이를 되돌린다.
+            transactionTemplate.executeWithoutResult(status -> memberJpaRepository.bulkAgePlus(-1));
+        }
+    }
+
+    @Test
+    void rollbackTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("statMember4", 100, em.find(Team.class, teamA.getId())));
+            status.setRollbackOnly();
+        });
+
+        TeamStatisticsDto statA = teamStatisticsRepository.findByTeamName("statTeamA").get();
+        assertThat(statA.getMemberCount()).isEqualTo(2);
+        assertThat(statA.getMaxAge()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,163 @@
+package com.study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 인덱스는 커밋된 변경만 반영하므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ */
+@SpringBootTest(properties = {
+    "member.username-ngram.enabled=true",
+    "member.username-ngram.max-candidates=3"
+})
+class UsernameNgramIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    UsernameNgramIndex usernameNgramIndex;
+
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Team teamA;
+    Member alice;
+    Member bob;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("ngramTeamA");
+        alice = new Member("ngramAlice", 10, teamA);
+        bob = new Member("ngramBob", 20, teamA);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(teamA);
+            em.persist(alice);
+            em.persist(bob);
+            em.persist(new Member("ngramMALICE", 30));
+        });
+        usernameNgramIndex.rebuild();
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'ngram%'").executeUpdate();
+            em.remove(em.find(Team.class, teamA.getId()));
+        });
+        usernameNgramIndex.markStale();
+    }
+
+    @Test
+    void searchTest() {
+        assertThat(search("alic")).extracting("username")
+            .containsExactlyInAnyOrder("ngramAlice", "ngramMALICE");
+        assertThat(search("ngrambob")).extracting("username").containsExactly("ngramBob");
+        assertThat(search("ngramx")).isEmpty();
+
+        // 3글자보다 짧으면 username 전체를 확인한다.
+        assertThat(search("mB")).extracting("username").containsExactly("ngramBob");
+
+        // 나머지 조건은 id in 조회에서 적용된다.
+        MemberSearchCondition condition = condition("alice");
+        condition.setTeamName("ngramTeamA");
+        assertThat(memberQueryRepository.search(condition)).extracting("username")
+            .containsExactly("ngramAlice");
+
+        for (String text : new String[]{"alic", "ngram", "mB", "mal", "ob"}) {
+            assertSameAsDatabase(condition(text));
+        }
+        assertSameAsDatabase(condition);
+    }
+
+    @Test
+    void syncTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("ngramCarol", 40));
+            em.find(Member.class, bob.getId()).setUsername("ngramRobert");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            em.remove(em.find(Member.class, alice.getId()));
+        });
+
+        assertThat(usernameNgramIndex.isStale()).isFalse();
+        assertThat(search("carol")).extracting("username").containsExactly("ngramCarol");
+        assertThat(search("bob")).isEmpty();
+        assertThat(search("robert")).extracting("username").containsExactly("ngramRobert");
+        assertThat(search("alice")).extracting("username").containsExactly("ngramMALICE");
+    }
+
+    @Test
+    void rollbackTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("ngramCarol", 40));
+            status.setRollbackOnly();
+        });
+
+        assertThat(usernameNgramIndex.find("carol")).isEmpty();
+    }
+
+    @Test
+    void staleTest() {
+        usernameNgramIndex.markStale();
+        assertThat(usernameNgramIndex.isStale()).isTrue();
+
+        // stale 이면 DB 에서 like 로 조회한다.
+        assertThat(search("alic")).extracting("username")
+            .containsExactlyInAnyOrder("ngramAlice", "ngramMALICE");
+
+        usernameNgramIndex.rebuild();
+        assertThat(usernameNgramIndex.isStale()).isFalse();
+    }
+
+    @Test
+    void maxCandidatesTest() {
+        assertThat(usernameNgramIndex.find("ngram")).hasSize(3);
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("ngramCarol", 40)));
+
+        // 후보가 max-candidates 를 넘으면 인덱스를 사용하지 않고 DB 에서 like 로 조회한다.
+        assertThat(usernameNgramIndex.find("ngram")).isNull();
+        assertThat(usernameNgramIndex.find("ng")).isNull();
+        assertThat(usernameNgramIndex.isStale()).isFalse();
+        assertThat(search("ngram")).extracting("username")
+            .containsExactlyInAnyOrder("ngramAlice", "ngramBob", "ngramMALICE", "ngramCarol");
+    }
+
+    private MemberSearchCondition condition(String containsText) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setContainsText(containsText);
+        return condition;
+    }
+
+    private List<MemberTeamDto> search(String containsText) {
+        return memberQueryRepository.search(condition(containsText));
+    }
+
+    private void assertSameAsDatabase(MemberSearchCondition condition) {
+        assertThat(usernameNgramIndex.find(condition.getContainsText())).isNotNull();
+        assertThat(memberQueryRepository.search(condition))
+            .containsExactlyInAnyOrderElementsOf(memberJpaRepository.search(condition));
+    }
+}
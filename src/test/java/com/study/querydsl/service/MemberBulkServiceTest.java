@@ -0,0 +1,137 @@
+package com.study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.dto.TeamStatisticsDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.TeamStatisticsRepository;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 청크마다 커밋하므로 @Transactional (rollback) 대신 트랜잭션을 직접 나눠서 확인한다.
+ * 10 명, 청크 3 명 -> 청크 4 개, 100 rows/s 로 제한
+ */
+@SpringBootTest(properties = {"member.bulk.chunk-size=3", "member.bulk.rows-per-second=100"})
+class MemberBulkServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkService memberBulkService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    TeamStatisticsRepository teamStatisticsRepository;
+
+    Team team;
+
+    @BeforeEach
+    void before() {
+        team = new Team("bulkTeam");
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(team);
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("bulkMember" + i, i * 10, team));
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'bulk%'").executeUpdate();
+            em.remove(em.find(Team.class, team.getId()));
+        });
+    }
+
+    @Test
+    void agePlusTest() {
+        List<BulkProgress> progresses = new ArrayList<>();
+
+        BulkProgress result = memberBulkService.agePlus(QMember.member.username.startsWith("bulkMember"), 1,
+            progresses::add);
+
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getChunks()).isEqualTo(4);
+        assertThat(result.getAffectedRows()).isEqualTo(10);
+        assertThat(progresses).extracting("affectedRows").containsExactly(3L, 6L, 9L, 10L, 10L);
+        // 청크 사이 (3, 6, 9 row 처리 후) 에 100 rows/s 가 되도록 쉰다.
+        assertThat(result.getElapsedMillis()).isGreaterThanOrEqualTo(80);
+
+        List<Integer> ages = em
+            .createQuery("select m.age from Member m where m.username like 'bulkMember%' order by m.age",
+                Integer.class)
+            .getResultList();
+        assertThat(ages).containsExactly(1, 11, 21, 31, 41, 51, 61, 71, 81, 91);
+
+        // 팀 집계는 청크마다 변경량으로 반영된다.
+        TeamStatisticsDto statistics = teamStatisticsRepository.findByTeamName("bulkTeam").get();
+        assertThat(statistics.getMemberCount()).isEqualTo(10);
+        assertThat(statistics.getAgeSum()).isEqualTo(460);
+        assertThat(statistics.getMinAge()).isEqualTo(1);
+        assertThat(statistics.getMaxAge()).isEqualTo(91);
+    }
+
+    @Test
+    void updateTest() {
+        BulkProgress result = memberBulkService.update(
+            QMember.member.username.startsWith("bulkMember").and(QMember.member.age.lt(28)),
+            clause -> clause.set(QMember.member.username, "bulkNonMember"),
+            progress -> {
+            });
+
+        assertThat(result.getAffectedRows()).isEqualTo(3);
+
+        Long count = em
+            .createQuery("select count(m) from Member m where m.username = 'bulkNonMember'", Long.class)
+            .getSingleResult();
+        assertThat(count).isEqualTo(3);
+
+        // 대소문자 무시 검색용 컬럼도 같이 바뀐다.
+        List<String> lowers = em
+            .createQuery("select m.usernameLower from Member m where m.username = 'bulkNonMember'", String.class)
+            .getResultList();
+        assertThat(lowers).hasSize(3).containsOnly("bulknonmember");
+
+        TeamStatisticsDto statistics = teamStatisticsRepository.findByTeamName("bulkTeam").get();
+        assertThat(statistics.getMemberCount()).isEqualTo(10);
+        assertThat(statistics.getAgeSum()).isEqualTo(450);
+    }
+
+    @Test
+    void deleteTest() {
+        BulkProgress result = memberBulkService.delete(
+            QMember.member.username.startsWith("bulkMember").and(QMember.member.age.gt(18)),
+            progress -> {
+            });
+
+        assertThat(result.getAffectedRows()).isEqualTo(8);
+        assertThat(result.getLastId()).isNotNull();
+
+        Long count = em
+            .createQuery("select count(m) from Member m where m.username like 'bulkMember%'", Long.class)
+            .getSingleResult();
+        assertThat(count).isEqualTo(2);
+
+        TeamStatisticsDto statistics = teamStatisticsRepository.findByTeamName("bulkTeam").get();
+        assertThat(statistics.getMemberCount()).isEqualTo(2);
+        assertThat(statistics.getAgeSum()).isEqualTo(10);
+        assertThat(statistics.getMinAge()).isEqualTo(0);
+        assertThat(statistics.getMaxAge()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,40 @@
+package com.study.querydsl.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.study.querydsl.monitoring.StatementCounter;
+import java.util.function.Supplier;
+
+/**
+ * Created by hyeonahlee on 2026-10-18.
+ *
+ * 호출 한 번에 실행되는 SQL 개수가 예산을 넘으면 실패시킨다. (N+1 방지)
+ * 쓰기 지연된 insert 가 같이 세어지지 않도록 호출 전에 em.flush() 해주자.
+ *
+ * <pre>
+ * List&lt;Member&gt; members = assertMaxStatements(1, () -&gt; memberJpaRepository.findAll());
+ * </pre>
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(long budget, Supplier<T> call) {
+        long start = StatementCounter.current();
+        T result = call.get();
+        long executed = StatementCounter.since(start);
+
+        assertThat(executed)
+            .as("executed %d statements, budget %d (possible N+1)", executed, budget)
+            .isLessThanOrEqualTo(budget);
+        return result;
+    }
+
+    public static void assertMaxStatements(long budget, Runnable call) {
+        assertMaxStatements(budget, () -> {
+            call.run();
+            return null;
+        });
+    }
+}